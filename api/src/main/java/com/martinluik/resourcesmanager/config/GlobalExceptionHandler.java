@@ -1,13 +1,18 @@
 package com.martinluik.resourcesmanager.config;
 
 import com.martinluik.resourcesmanager.exception.CharacteristicNotFoundException;
+import com.martinluik.resourcesmanager.exception.ExportJobNotFoundException;
 import com.martinluik.resourcesmanager.exception.LocationNotFoundException;
+import com.martinluik.resourcesmanager.exception.PreconditionFailedException;
 import com.martinluik.resourcesmanager.exception.ResourceNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -40,6 +45,27 @@ public class GlobalExceptionHandler {
     return createErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(ExportJobNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleExportJobNotFoundException(
+      ExportJobNotFoundException ex) {
+    log.warn("Export job not found: {}", ex.getMessage());
+    return createErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+      PreconditionFailedException ex) {
+    log.warn("Precondition failed: {}", ex.getMessage());
+    return createErrorResponse(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+  }
+
+  @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+  public ResponseEntity<ErrorResponse> handleOptimisticLockException(RuntimeException ex) {
+    log.warn("Concurrent modification: {}", ex.getMessage());
+    return createErrorResponse(
+        "The entity was modified concurrently, reload it and retry", HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex) {
@@ -53,6 +79,20 @@ public class GlobalExceptionHandler {
     return createErrorResponse(message, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(ConstraintViolationException.class)
+  public ResponseEntity<ErrorResponse> handleConstraintViolationException(
+      ConstraintViolationException ex) {
+    var errors = new HashMap<String, String>();
+    ex.getConstraintViolations()
+        .forEach(
+            violation ->
+                errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+    var message = "Validation failed: " + errors;
+    log.warn("Validation error: {}", message);
+    return createErrorResponse(message, HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(HandlerMethodValidationException.class)
   public ResponseEntity<ErrorResponse> handleHandlerMethodValidationException(
       HandlerMethodValidationException ex) {
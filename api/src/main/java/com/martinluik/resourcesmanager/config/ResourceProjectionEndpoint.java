@@ -0,0 +1,21 @@
+package com.martinluik.resourcesmanager.config;
+
+import com.martinluik.resourcesmanager.projection.ResourceProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** Readiness, size and the last applied offset and lag per partition of the resource projection. */
+@Component
+@Endpoint(id = "projection")
+@RequiredArgsConstructor
+public class ResourceProjectionEndpoint {
+
+  private final ResourceProjection resourceProjection;
+
+  @ReadOperation
+  public ResourceProjection.Status projection() {
+    return resourceProjection.status();
+  }
+}
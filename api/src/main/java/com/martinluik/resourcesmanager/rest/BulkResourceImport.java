@@ -0,0 +1,135 @@
+package com.martinluik.resourcesmanager.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.dto.BulkItemResultDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.service.ResourceService;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Reads a JSON array of resources element by element and creates the valid ones in chunks, so
+ * neither the request body nor the persistence context ever holds more than one chunk.
+ *
+ * <p>A body that turns out malformed before any chunk is written is rejected as a whole. Once a
+ * chunk is written, the import stops at the malformed item instead and reports it, and every item
+ * not yet written, as rejected, so a client only retries what was not created.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class BulkResourceImport {
+
+  // Matches hibernate.jdbc.batch_size so that each chunk is written as one JDBC batch per table
+  static final int CHUNK_SIZE = 500;
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ResourceService resourceService;
+
+  private final List<BulkItemResultDto> results = new ArrayList<>();
+  private final List<ResourceDto> chunk = new ArrayList<>(CHUNK_SIZE);
+  private final List<Integer> chunkIndexes = new ArrayList<>(CHUNK_SIZE);
+  private boolean written;
+
+  /**
+   * Per-item results of a bulk request, and whether the body was read to its end. An incomplete
+   * outcome lists every item up to the malformed one; later items were never read.
+   */
+  record Outcome(List<BulkItemResultDto> results, boolean complete) {}
+
+  Outcome run(InputStream body) throws IOException {
+    try (var parser = objectMapper.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IllegalArgumentException("Bulk request body must be a JSON array");
+      }
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        accept(results.size(), parser);
+        if (chunk.size() == CHUNK_SIZE) {
+          flushChunk();
+        }
+      }
+      if (parser.currentToken() != JsonToken.END_ARRAY) {
+        return stop("Bulk request item " + results.size() + " must be a JSON object", null);
+      }
+      flushChunk();
+    } catch (JsonParseException e) {
+      return stop("Malformed bulk request body: " + e.getOriginalMessage(), e);
+    }
+    return new Outcome(results, true);
+  }
+
+  private Outcome stop(String error, @Nullable JsonParseException cause) {
+    if (!written) {
+      throw new IllegalArgumentException(error, cause);
+    }
+
+    var notCreated = List.of("Not created: the request body is malformed further on");
+    chunkIndexes.forEach(
+        index -> results.set(index, BulkItemResultDto.rejected(index, notCreated)));
+    results.add(BulkItemResultDto.rejected(results.size(), List.of(error)));
+    return new Outcome(results, false);
+  }
+
+  private void accept(int index, JsonParser parser) throws IOException {
+    JsonNode node = parser.readValueAsTree();
+    ResourceDto dto;
+    try {
+      dto = objectMapper.treeToValue(node, ResourceDto.class);
+    } catch (JsonProcessingException e) {
+      results.add(BulkItemResultDto.rejected(index, List.of(e.getOriginalMessage())));
+      return;
+    }
+
+    var violations = validator.validate(dto);
+    if (!violations.isEmpty()) {
+      var errors =
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+              .sorted()
+              .toList();
+      results.add(BulkItemResultDto.rejected(index, errors));
+      return;
+    }
+
+    // Placeholder until the chunk is written and the ID is known
+    results.add(null);
+    chunk.add(dto);
+    chunkIndexes.add(index);
+  }
+
+  private void flushChunk() {
+    if (chunk.isEmpty()) {
+      return;
+    }
+
+    try {
+      var created = resourceService.createResources(chunk);
+      written = true;
+      for (var i = 0; i < created.size(); i++) {
+        var index = chunkIndexes.get(i);
+        results.set(index, BulkItemResultDto.created(index, created.get(i).getId()));
+      }
+    } catch (DataAccessException e) {
+      log.warn("Bulk chunk of {} resources rejected: {}", chunk.size(), e.getMessage());
+      var error =
+          List.of("Chunk rejected by the database: " + e.getMostSpecificCause().getMessage());
+      chunkIndexes.forEach(index -> results.set(index, BulkItemResultDto.rejected(index, error)));
+    }
+
+    chunk.clear();
+    chunkIndexes.clear();
+  }
+}
@@ -1,23 +1,34 @@
 package com.martinluik.resourcesmanager.rest;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.DEFAULT_PAGE_SIZE;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.martinluik.resourcesmanager.dto.BatchGetRequestDto;
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
 import com.martinluik.resourcesmanager.dto.CharacteristicDto;
 import com.martinluik.resourcesmanager.service.CharacteristicService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -28,16 +39,25 @@ public class CharacteristicsController {
   public static final String API_URL = "/api/characteristics";
 
   private final CharacteristicService characteristicService;
+  private final JsonMergePatch jsonMergePatch;
 
   @GetMapping
-  public ResponseEntity<List<CharacteristicDto>> getAll() {
-    log.info("GET request received to retrieve all characteristics");
-    return ResponseEntity.ok(characteristicService.getAllCharacteristics());
+  public ResponseEntity<List<CharacteristicDto>> getAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive int limit) {
+    log.info("GET request received to retrieve characteristics page, limit: {}", limit);
+    return PageResponses.of(characteristicService.getAllCharacteristics(cursor, limit));
   }
 
   @GetMapping("{id}")
-  public ResponseEntity<CharacteristicDto> getById(@PathVariable @NotNull UUID id) {
+  public ResponseEntity<CharacteristicDto> getById(
+      @PathVariable @NotNull UUID id, WebRequest request) {
     log.info("GET request received to retrieve characteristic with ID: {}", id);
+    var version = characteristicService.getCharacteristicVersion(id);
+    if (ConditionalRequests.isNotModified(request, version)) {
+      return null;
+    }
+
     var dto = characteristicService.getCharacteristic(id);
     return ResponseEntity.ok(dto);
   }
@@ -50,6 +70,16 @@ public class CharacteristicsController {
     return ResponseEntity.ok(characteristicService.getCharacteristicsByResourceId(resourceId));
   }
 
+  @PostMapping("by-resources")
+  public ResponseEntity<BatchGetResultDto<CharacteristicDto>> getByResourceIds(
+      @Valid @RequestBody BatchGetRequestDto request) {
+    log.info(
+        "POST request received to retrieve characteristics for {} resources",
+        request.getIds().size());
+    return ResponseEntity.ok(
+        characteristicService.getCharacteristicsByResourceIds(request.getIds()));
+  }
+
   @PostMapping("resource/{resourceId}")
   public ResponseEntity<CharacteristicDto> create(
       @PathVariable @NotNull UUID resourceId, @Valid @RequestBody CharacteristicDto dto) {
@@ -59,10 +89,28 @@ public class CharacteristicsController {
   }
 
   @PutMapping
-  public ResponseEntity<CharacteristicDto> update(@Valid @RequestBody CharacteristicDto dto) {
+  public ResponseEntity<CharacteristicDto> update(
+      @Valid @RequestBody CharacteristicDto dto,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     log.info("PUT request received to update characteristic with ID: {}", dto.getId());
-    var updated = characteristicService.updateCharacteristic(dto);
-    return ResponseEntity.ok(updated);
+    var updated =
+        characteristicService.updateCharacteristic(
+            dto, ConditionalRequests.expectedVersion(ifMatch));
+    return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
+  }
+
+  @PatchMapping(path = "{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+  public ResponseEntity<CharacteristicDto> patch(
+      @PathVariable @NotNull UUID id,
+      @RequestBody JsonNode patch,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    log.info("PATCH request received to update characteristic with ID: {}", id);
+    var updated =
+        characteristicService.patchCharacteristic(
+            id,
+            jsonMergePatch.of(patch, CharacteristicDto.class),
+            ConditionalRequests.expectedVersion(ifMatch));
+    return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
   }
 
   @DeleteMapping("{id}")
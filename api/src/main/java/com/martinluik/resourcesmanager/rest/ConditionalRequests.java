@@ -0,0 +1,44 @@
+package com.martinluik.resourcesmanager.rest;
+
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import com.martinluik.resourcesmanager.exception.PreconditionFailedException;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.web.context.request.WebRequest;
+
+final class ConditionalRequests {
+
+  private ConditionalRequests() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Evaluates {@code If-None-Match} and {@code If-Modified-Since} against the entity version. Sets
+   * the strong {@code ETag} and {@code Last-Modified} headers and, when the client copy is current,
+   * the 304 status, in which case the handler must return without a body.
+   */
+  static boolean isNotModified(WebRequest request, VersionDto version) {
+    return request.checkNotModified(
+        String.valueOf(version.getVersion()), version.getUpdatedAt().toEpochMilli());
+  }
+
+  /**
+   * Returns the version required by an {@code If-Match} header, or null when the header is absent
+   * or {@code *}. Weak or foreign tags can never match a version.
+   */
+  @Nullable
+  static Long expectedVersion(@Nullable String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+      return null;
+    }
+
+    var tag = ifMatch.strip();
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.valueOf(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException e) {
+        // Falls through to the precondition failure below
+      }
+    }
+    throw new PreconditionFailedException("If-Match " + ifMatch + " matches no version");
+  }
+}
@@ -0,0 +1,67 @@
+package com.martinluik.resourcesmanager.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Applies JSON Merge Patch (RFC 7396) documents to DTOs. */
+@Component
+@RequiredArgsConstructor
+class JsonMergePatch {
+
+  static final String MEDIA_TYPE = "application/merge-patch+json";
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  /**
+   * Returns the patch as a function of the current DTO. The patched DTO is validated as a whole,
+   * so a patch cannot remove a required field.
+   */
+  <T> UnaryOperator<T> of(JsonNode patch, Class<T> type) {
+    if (!patch.isObject()) {
+      throw new IllegalArgumentException("Merge patch must be a JSON object");
+    }
+
+    return current -> {
+      T patched;
+      try {
+        patched = objectMapper.treeToValue(merge(objectMapper.valueToTree(current), patch), type);
+      } catch (JsonProcessingException e) {
+        throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage(), e);
+      }
+
+      var violations = validator.validate(patched);
+      if (!violations.isEmpty()) {
+        throw new ConstraintViolationException(violations);
+      }
+      return patched;
+    };
+  }
+
+  // Objects merge member by member, null removes a member and anything else replaces it
+  private JsonNode merge(JsonNode target, JsonNode patch) {
+    if (!patch.isObject()) {
+      return patch;
+    }
+
+    var merged = target.isObject() ? (ObjectNode) target : objectMapper.createObjectNode();
+    patch
+        .fields()
+        .forEachRemaining(
+            member -> {
+              if (member.getValue().isNull()) {
+                merged.remove(member.getKey());
+              } else {
+                merged.set(member.getKey(), merge(merged.path(member.getKey()), member.getValue()));
+              }
+            });
+    return merged;
+  }
+}
@@ -1,23 +1,35 @@
 package com.martinluik.resourcesmanager.rest;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.DEFAULT_PAGE_SIZE;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.DEFAULT_SEARCH_LIMIT;
+
+import com.fasterxml.jackson.databind.JsonNode;
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.LocationSearchResultDto;
 import com.martinluik.resourcesmanager.service.LocationService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @Slf4j
 @RestController
@@ -28,16 +40,33 @@ public class LocationController {
   public static final String API_URL = "/api/locations";
 
   private final LocationService locationService;
+  private final JsonMergePatch jsonMergePatch;
 
   @GetMapping
-  public List<LocationDto> getAll() {
-    log.info("GET request received to retrieve all locations");
-    return locationService.getAllLocations();
+  public ResponseEntity<List<LocationDto>> getAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive int limit) {
+    log.info("GET request received to retrieve locations page, limit: {}", limit);
+    return PageResponses.of(locationService.getAllLocations(cursor, limit));
+  }
+
+  @GetMapping("search")
+  public ResponseEntity<List<LocationSearchResultDto>> search(
+      @RequestParam @NotBlank String q,
+      @RequestParam(defaultValue = DEFAULT_SEARCH_LIMIT) @Positive int limit,
+      @RequestParam(defaultValue = "false") boolean includeResource) {
+    log.info("GET request received to search locations, query: {}, limit: {}", q, limit);
+    return ResponseEntity.ok(locationService.searchLocations(q, limit, includeResource));
   }
 
   @GetMapping("{id}")
-  public ResponseEntity<LocationDto> getById(@PathVariable @NotNull UUID id) {
+  public ResponseEntity<LocationDto> getById(
+      @PathVariable @NotNull UUID id, WebRequest request) {
     log.info("GET request received to retrieve location with ID: {}", id);
+    if (ConditionalRequests.isNotModified(request, locationService.getLocationVersion(id))) {
+      return null;
+    }
+
     var dto = locationService.getLocation(id);
     return ResponseEntity.ok(dto);
   }
@@ -56,6 +85,20 @@ public class LocationController {
     return ResponseEntity.ok(updated);
   }
 
+  @PatchMapping(path = "{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+  public ResponseEntity<LocationDto> patch(
+      @PathVariable @NotNull UUID id,
+      @RequestBody JsonNode patch,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    log.info("PATCH request received to update location with ID: {}", id);
+    var updated =
+        locationService.patchLocation(
+            id,
+            jsonMergePatch.of(patch, LocationDto.class),
+            ConditionalRequests.expectedVersion(ifMatch));
+    return ResponseEntity.ok(updated);
+  }
+
   @DeleteMapping("{id}")
   public ResponseEntity<Void> delete(@PathVariable @NotNull UUID id) {
     log.info("DELETE request received to delete location with ID: {}", id);
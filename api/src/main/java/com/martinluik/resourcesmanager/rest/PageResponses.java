@@ -0,0 +1,22 @@
+package com.martinluik.resourcesmanager.rest;
+
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.NEXT_CURSOR_HEADER;
+
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+
+final class PageResponses {
+
+  private PageResponses() {
+    // Utility class - prevent instantiation
+  }
+
+  static <T> ResponseEntity<List<T>> of(CursorPageDto<T> page) {
+    var response = ResponseEntity.ok();
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+    }
+    return response.body(page.getItems());
+  }
+}
@@ -1,22 +1,50 @@
 package com.martinluik.resourcesmanager.rest;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.DEFAULT_PAGE_SIZE;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.dto.BatchGetRequestDto;
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
+import com.martinluik.resourcesmanager.dto.BulkItemResultDto;
+import com.martinluik.resourcesmanager.dto.ExportJobDto;
+import com.martinluik.resourcesmanager.dto.ImportReportDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.enums.ImportFormat;
+import com.martinluik.resourcesmanager.service.BulkExportService;
+import com.martinluik.resourcesmanager.service.ResourceImportService;
 import com.martinluik.resourcesmanager.service.ResourceService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Positive;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -25,21 +53,54 @@ import org.springframework.web.bind.annotation.RestController;
 public class ResourcesController {
 
   public static final String API_URL = "/api/resources";
+  public static final String TEXT_CSV_VALUE = "text/csv";
 
   private final ResourceService resourceService;
+  private final ResourceImportService resourceImportService;
+  private final BulkExportService bulkExportService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final JsonMergePatch jsonMergePatch;
 
   @GetMapping
-  public ResponseEntity<List<ResourceDto>> getAll() {
-    log.info("GET request received to retrieve all resources");
-    var resources = resourceService.getAllResources();
-    return ResponseEntity.ok(resources);
+  public ResponseEntity<List<ResourceDto>> getAll(
+      @Valid ResourceFilterDto filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Positive int limit) {
+    log.info(
+        "GET request received to retrieve resources page, filter: {}, limit: {}", filter, limit);
+    var page = resourceService.getAllResources(filter, cursor, limit);
+    return PageResponses.of(page);
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamAll() {
+    log.info("GET request received to stream all resources as NDJSON");
+    StreamingResponseBody body =
+        outputStream ->
+            resourceService.streamAllResources(resource -> writeLine(outputStream, resource));
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
   }
 
+  // Writes the cached JSON straight to the response instead of returning a copy of it
   @GetMapping("{id}")
-  public ResponseEntity<ResourceDto> getById(@PathVariable UUID id) {
+  public void getById(@PathVariable UUID id, WebRequest request, HttpServletResponse response)
+      throws IOException {
     log.info("GET request received to retrieve resource with ID: {}", id);
-    var resource = resourceService.getResource(id);
-    return ResponseEntity.ok(resource);
+    var version = resourceService.getResourceVersion(id);
+    if (ConditionalRequests.isNotModified(request, version)) {
+      return;
+    }
+
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    resourceService.writeResourceJson(id, version.getVersion(), response.getOutputStream());
+  }
+
+  @PostMapping("batch-get")
+  public ResponseEntity<BatchGetResultDto<ResourceDto>> batchGet(
+      @Valid @RequestBody BatchGetRequestDto request) {
+    log.info("POST request received to retrieve {} resources", request.getIds().size());
+    return ResponseEntity.ok(resourceService.getResources(request.getIds()));
   }
 
   @PostMapping
@@ -49,11 +110,55 @@ public class ResourcesController {
     return ResponseEntity.status(HttpStatus.CREATED).body(created);
   }
 
+  @PostMapping(path = "bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<List<BulkItemResultDto>> bulkCreate(InputStream body) throws IOException {
+    log.info("POST request received to bulk create resources");
+    var outcome = new BulkResourceImport(objectMapper, validator, resourceService).run(body);
+    var status = outcome.complete() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+    return ResponseEntity.status(status).body(outcome.results());
+  }
+
+  @PostMapping(path = "import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<ImportReportDto> importNdjson(InputStream body) {
+    log.info("POST request received to import resources from NDJSON");
+    return ResponseEntity.ok(resourceImportService.importResources(body, ImportFormat.NDJSON));
+  }
+
+  @PostMapping(path = "import", consumes = TEXT_CSV_VALUE)
+  public ResponseEntity<ImportReportDto> importCsv(InputStream body) {
+    log.info("POST request received to import resources from CSV");
+    return ResponseEntity.ok(resourceImportService.importResources(body, ImportFormat.CSV));
+  }
+
+  @PostMapping("import-file")
+  public ResponseEntity<ImportReportDto> importFile(
+      @RequestParam String path, @RequestParam ImportFormat format) {
+    log.info("POST request received to import resources from file: {}", path);
+    return ResponseEntity.ok(resourceImportService.importResourcesFromFile(path, format));
+  }
+
   @PutMapping
-  public ResponseEntity<ResourceDto> update(@Valid @RequestBody ResourceDto dto) {
+  public ResponseEntity<ResourceDto> update(
+      @Valid @RequestBody ResourceDto dto,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     log.info("PUT request received to update resource with ID: {}", dto.getId());
-    var updated = resourceService.updateResource(dto);
-    return ResponseEntity.ok(updated);
+    var updated =
+        resourceService.updateResource(dto, ConditionalRequests.expectedVersion(ifMatch));
+    return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
+  }
+
+  @PatchMapping(path = "{id}", consumes = JsonMergePatch.MEDIA_TYPE)
+  public ResponseEntity<ResourceDto> patch(
+      @PathVariable UUID id,
+      @RequestBody JsonNode patch,
+      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    log.info("PATCH request received to update resource with ID: {}", id);
+    var updated =
+        resourceService.patchResource(
+            id,
+            jsonMergePatch.of(patch, ResourceDto.class),
+            ConditionalRequests.expectedVersion(ifMatch));
+    return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
   }
 
   @DeleteMapping("{id}")
@@ -64,9 +169,33 @@ public class ResourcesController {
   }
 
   @PostMapping("bulk-export")
-  public ResponseEntity<String> exportAllResources() {
+  public ResponseEntity<ExportJobDto> exportAllResources() {
     log.info("POST request received to initiate bulk export of all resources");
-    resourceService.exportAllResources();
-    return ResponseEntity.accepted().body("Bulk export initiated");
+    var job = bulkExportService.startExport();
+    return ResponseEntity.accepted()
+        .location(URI.create(API_URL + "/bulk-export/" + job.getId()))
+        .body(job);
+  }
+
+  @GetMapping("bulk-export/{jobId}")
+  public ResponseEntity<ExportJobDto> getExportJob(@PathVariable UUID jobId) {
+    log.info("GET request received to retrieve bulk export job with ID: {}", jobId);
+    return ResponseEntity.ok(bulkExportService.getExportJob(jobId));
+  }
+
+  @DeleteMapping("bulk-export/{jobId}")
+  public ResponseEntity<ExportJobDto> cancelExportJob(@PathVariable UUID jobId) {
+    log.info("DELETE request received to cancel bulk export job with ID: {}", jobId);
+    return ResponseEntity.ok(bulkExportService.cancelExport(jobId));
+  }
+
+  private void writeLine(OutputStream outputStream, ResourceDto resource) {
+    try {
+      outputStream.write(objectMapper.writeValueAsBytes(resource));
+      outputStream.write('\n');
+      outputStream.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to stream resource " + resource.getId(), e);
+    }
   }
 }
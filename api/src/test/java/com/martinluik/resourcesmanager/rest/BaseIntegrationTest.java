@@ -3,7 +3,9 @@ package com.martinluik.resourcesmanager.rest;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.martinluik.resourcesmanager.config.TestContainersConfig;
 import com.martinluik.resourcesmanager.repository.CharacteristicRepository;
+import com.martinluik.resourcesmanager.repository.ExportJobRepository;
 import com.martinluik.resourcesmanager.repository.LocationRepository;
+import com.martinluik.resourcesmanager.repository.OutboxRepository;
 import com.martinluik.resourcesmanager.repository.ResourceRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,6 +40,8 @@ public abstract class BaseIntegrationTest {
   @Autowired protected CharacteristicRepository characteristicRepository;
   @Autowired protected ResourceRepository resourceRepository;
   @Autowired protected LocationRepository locationRepository;
+  @Autowired protected OutboxRepository outboxRepository;
+  @Autowired protected ExportJobRepository exportJobRepository;
   @Autowired protected ObjectMapper objectMapper;
 
   protected MockMvc mockMvc;
@@ -77,5 +81,7 @@ public abstract class BaseIntegrationTest {
     characteristicRepository.deleteAll();
     resourceRepository.deleteAll();
     locationRepository.deleteAll();
+    outboxRepository.deleteAllInBatch();
+    exportJobRepository.deleteAllInBatch();
   }
 }
@@ -8,16 +8,19 @@ import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResourc
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.martinluik.resourcesmanager.domain.Characteristic;
 import com.martinluik.resourcesmanager.dto.CharacteristicDto;
 import com.martinluik.resourcesmanager.enums.CharacteristicType;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 class CharacteristicsControllerIntegrationTest extends BaseIntegrationTest {
@@ -54,10 +57,14 @@ class CharacteristicsControllerIntegrationTest extends BaseIntegrationTest {
                 200,
                 MediaType.APPLICATION_JSON)
             .andReturn()
-            .getResponse()
-            .getContentAsString();
+            .getResponse();
 
-    var updatedCharacteristic = objectMapper.readValue(response, CharacteristicDto.class);
+    // Then
+    var updatedCharacteristic =
+        objectMapper.readValue(response.getContentAsString(), CharacteristicDto.class);
+    assertThat(updatedCharacteristic.getVersion()).isGreaterThan(characteristic.getVersion());
+    assertThat(response.getHeader(HttpHeaders.ETAG))
+        .isEqualTo("\"" + updatedCharacteristic.getVersion() + "\"");
     assertThat(updatedCharacteristic)
         .extracting(
             CharacteristicDto::getId,
@@ -73,6 +80,70 @@ class CharacteristicsControllerIntegrationTest extends BaseIntegrationTest {
             "Updated Value");
   }
 
+  @Test
+  @DisplayName("patchCharacteristic_withValueOnly_keepsOtherFields")
+  void patchCharacteristic_withValueOnly_keepsOtherFields() throws Exception {
+    // Given
+    var resource = resourceRepository.save(constructResource(constructLocation()));
+    var characteristic = characteristicRepository.save(constructCharacteristic(resource));
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                patch(CharacteristicsController.API_URL + "/" + characteristic.getId())
+                    .contentType(JsonMergePatch.MEDIA_TYPE)
+                    .content("{\"value\": \"" + CHARACTERISTIC_VALUE2 + "\"}"),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var patchedCharacteristic = objectMapper.readValue(response, CharacteristicDto.class);
+    assertThat(patchedCharacteristic)
+        .extracting(
+            CharacteristicDto::getId,
+            CharacteristicDto::getCode,
+            CharacteristicDto::getType,
+            CharacteristicDto::getValue)
+        .containsExactly(
+            characteristic.getId(),
+            characteristic.getCode(),
+            characteristic.getType(),
+            CHARACTERISTIC_VALUE2);
+  }
+
+  @Test
+  @DisplayName("updateCharacteristic_withStaleIfMatch_returns412")
+  void updateCharacteristic_withStaleIfMatch_returns412() throws Exception {
+    // Given
+    var resource = resourceRepository.save(constructResource(constructLocation()));
+    var characteristic = characteristicRepository.save(constructCharacteristic(resource));
+    var updateDto =
+        CharacteristicDto.builder()
+            .id(characteristic.getId())
+            .resourceId(resource.getId())
+            .code(CHARACTERISTIC_CODE2)
+            .type(CharacteristicType.CHARGING_POINT)
+            .value(CHARACTERISTIC_VALUE2)
+            .build();
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        put(CharacteristicsController.API_URL)
+            .header(HttpHeaders.IF_MATCH, "\"" + (characteristic.getVersion() + 1) + "\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateDto)),
+        412);
+    assertThat(characteristicRepository.findById(characteristic.getId()))
+        .get()
+        .extracting(Characteristic::getValue)
+        .isEqualTo(characteristic.getValue());
+  }
+
   @Test
   @DisplayName("updateCharacteristic_withNonExistentId_returns404")
   void updateCharacteristic_withNonExistentId_returns404() throws Exception {
@@ -326,6 +397,28 @@ class CharacteristicsControllerIntegrationTest extends BaseIntegrationTest {
             characteristic.getId(), "TEST1", CharacteristicType.CONSUMPTION_TYPE, "Fast Charging");
   }
 
+  @Test
+  @DisplayName("getCharacteristicById_withCurrentIfModifiedSince_returns304")
+  void getCharacteristicById_withCurrentIfModifiedSince_returns304() throws Exception {
+    // Given
+    var resource = resourceRepository.save(constructResource(constructLocation()));
+    var characteristic = characteristicRepository.save(constructCharacteristic(resource));
+    var characteristicUrl = CharacteristicsController.API_URL + "/" + characteristic.getId();
+    var lastModified =
+        mockMvc
+            .perform(get(characteristicUrl))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LAST_MODIFIED);
+
+    // When & Then
+    mockMvc
+        .perform(get(characteristicUrl).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+        .andExpect(status().isNotModified())
+        .andExpect(content().bytes(new byte[0]));
+  }
+
   @Test
   @DisplayName("getCharacteristicById_withNonExistentId_returns404")
   void getCharacteristicById_withNonExistentId_returns404() throws Exception {
@@ -4,22 +4,41 @@ import static com.martinluik.resourcesmanager.rest.TestFixtures.LOCATION2_CITY;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.LOCATION2_COUNTRY;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.LOCATION2_POSTAL;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.LOCATION2_STREET;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocation;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocation2;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResource;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.LocationSearchResultDto;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import javax.sql.DataSource;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 
 class LocationControllerIntegrationTest extends BaseIntegrationTest {
 
+  private static final String SEARCH_INDEX_MIGRATION =
+      "db/liquibase/migrations/2026/18-10-0930-create-location-search-index.sql";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private DataSource dataSource;
+
   @Test
   @DisplayName("getAllLocations_withExistingLocations_returnsAllLocations")
   void getAllLocations_withExistingLocations_returnsAllLocations() throws Exception {
@@ -87,6 +106,30 @@ class LocationControllerIntegrationTest extends BaseIntegrationTest {
             LOCATION2_COUNTRY);
   }
 
+  @Test
+  @DisplayName("getLocationById_withCurrentETag_returns304")
+  void getLocationById_withCurrentETag_returns304() throws Exception {
+    // Given
+    var location = locationRepository.save(constructLocation2());
+    var locationUrl = LocationController.API_URL + "/" + location.getId();
+    var eTag =
+        MockMvcTestUtils.performAndExpect(mockMvc, get(locationUrl), 200)
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, get(locationUrl).header(HttpHeaders.IF_NONE_MATCH, eTag), 304)
+            .andReturn()
+            .getResponse();
+
+    // Then
+    assertThat(eTag).isNotNull();
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
   @Test
   @DisplayName("getLocationById_withNonExistentId_returns404")
   void getLocationById_withNonExistentId_returns404() throws Exception {
@@ -209,6 +252,36 @@ class LocationControllerIntegrationTest extends BaseIntegrationTest {
         .containsExactly("456 Updated Street", "Updated City", "54321", "LT");
   }
 
+  @Test
+  @DisplayName("patchLocation_withCityOnly_keepsOtherFields")
+  void patchLocation_withCityOnly_keepsOtherFields() throws Exception {
+    // Given
+    var location = locationRepository.save(constructLocation2());
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                patch(LocationController.API_URL + "/" + location.getId())
+                    .contentType(JsonMergePatch.MEDIA_TYPE)
+                    .content("{\"city\": \"Patched City\"}"),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var patchedLocation = objectMapper.readValue(response, LocationDto.class);
+    assertThat(patchedLocation)
+        .extracting(
+            LocationDto::getStreetAddress,
+            LocationDto::getCity,
+            LocationDto::getPostalCode,
+            LocationDto::getCountryCode)
+        .containsExactly(LOCATION2_STREET, "Patched City", LOCATION2_POSTAL, LOCATION2_COUNTRY);
+  }
+
   @Test
   @DisplayName("updateLocation_withNonExistentId_returns404")
   void updateLocation_withNonExistentId_returns404() throws Exception {
@@ -280,4 +353,72 @@ class LocationControllerIntegrationTest extends BaseIntegrationTest {
     assertThat(errorMap.get("message").toString()).contains(nonExistentId.toString());
     assertThat(errorMap.get("timestamp")).isNotNull();
   }
+
+  @Test
+  @DisplayName("searchLocations_withPartialAddress_returnsRankedMatchesWithResource")
+  void searchLocations_withPartialAddress_returnsRankedMatchesWithResource() throws Exception {
+    // Given
+    jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+    locationRepository.save(constructLocation());
+    var resource = resourceRepository.saveAndFlush(constructResource(constructLocation2()));
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                get(LocationController.API_URL + "/search")
+                    .param("q", "New Stret")
+                    .param("includeResource", "true"),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    List<LocationSearchResultDto> results =
+        objectMapper.readValue(
+            response,
+            objectMapper
+                .getTypeFactory()
+                .constructCollectionType(List.class, LocationSearchResultDto.class));
+    assertThat(results).isNotEmpty();
+    assertThat(results)
+        .extracting(LocationSearchResultDto::getSimilarity)
+        .isSortedAccordingTo(Comparator.reverseOrder());
+    var bestMatch = results.getFirst();
+    assertThat(bestMatch.getLocation().getStreetAddress()).isEqualTo(LOCATION2_STREET);
+    assertThat(bestMatch.getResource()).isNotNull();
+    assertThat(bestMatch.getResource().getId()).isEqualTo(resource.getId());
+  }
+
+  @Test
+  @DisplayName("searchLocations_withBlankQuery_returns400")
+  void searchLocations_withBlankQuery_returns400() throws Exception {
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, get(LocationController.API_URL + "/search").param("q", " "), 400);
+  }
+
+  @Test
+  @DisplayName("searchLocations_withSearchIndexMigration_usesTrigramIndex")
+  void searchLocations_withSearchIndexMigration_usesTrigramIndex() {
+    // Given
+    DatabasePopulatorUtils.execute(
+        new ResourceDatabasePopulator(new ClassPathResource(SEARCH_INDEX_MIGRATION)), dataSource);
+    locationRepository.saveAndFlush(constructLocation());
+    locationRepository.saveAndFlush(constructLocation2());
+    jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+    // When
+    List<String> plan =
+        jdbcTemplate.queryForList(
+            "EXPLAIN SELECT l.id FROM location l"
+                + " WHERE ? <% (l.street_address || ' ' || l.city || ' ' || l.postal_code)",
+            String.class,
+            "New Stret");
+
+    // Then
+    assertThat(String.join("\n", plan)).contains("idx_location_search_text_trgm");
+  }
 }
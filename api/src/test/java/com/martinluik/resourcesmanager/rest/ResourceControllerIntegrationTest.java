@@ -2,7 +2,11 @@ package com.martinluik.resourcesmanager.rest;
 
 import static com.martinluik.resourcesmanager.config.KafkaConfig.BULK_EXPORT_TOPIC;
 import static com.martinluik.resourcesmanager.config.KafkaConfig.RESOURCES_UPDATES_TOPIC;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_BATCH_GET_SIZE;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.NEXT_CURSOR_HEADER;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.CHARACTERISTIC_CODE;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.CHARACTERISTIC_VALUE;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.CHARACTERISTIC_VALUE2;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.RESOURCE_COUNTRY;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.RESOURCE_COUNTRY2;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.RESOURCE_TYPE;
@@ -13,28 +17,77 @@ import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocatio
 import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResourceDto;
 import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResourceDto2;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.times;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.martinluik.resourcesmanager.cache.ResourceResponseCache;
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.dto.BatchGetRequestDto;
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
+import com.martinluik.resourcesmanager.dto.BulkExportChunkDto;
+import com.martinluik.resourcesmanager.dto.BulkItemResultDto;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.ExportJobDto;
+import com.martinluik.resourcesmanager.dto.ImportReportDto;
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import com.martinluik.resourcesmanager.messaging.BulkExportChunkReader;
+import com.martinluik.resourcesmanager.messaging.KafkaConsumerServiceImpl;
+import com.martinluik.resourcesmanager.messaging.OutboxRelay;
+import com.martinluik.resourcesmanager.messaging.PayloadCodec;
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import com.martinluik.resourcesmanager.messaging.ResourceEventType;
+import com.martinluik.resourcesmanager.service.ResourceSnapshotPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 class ResourceControllerIntegrationTest extends BaseIntegrationTest {
 
-  @SpyBean private KafkaTemplate<String, String> kafkaTemplate;
+  @SpyBean private KafkaTemplate<String, byte[]> kafkaTemplate;
+  @Autowired private KafkaConsumerServiceImpl kafkaConsumerService;
+  @Autowired private ResourceResponseCache resourceResponseCache;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private OutboxRelay outboxRelay;
+  @Autowired private BulkExportChunkReader bulkExportChunkReader;
+  @Autowired private MeterRegistry meterRegistry;
+  @Autowired private PayloadCodec payloadCodec;
+  @Autowired private ResourceSnapshotPublisher resourceSnapshotPublisher;
 
   @Test
   @DisplayName("createResource_withValidInput_sendsKafkaMessage")
@@ -68,11 +121,14 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
               assertThat(tuple.get(2)).isEqualTo(RESOURCE_COUNTRY);
             });
 
-    var payloadCaptor = org.mockito.ArgumentCaptor.forClass(String.class);
-    verify(kafkaTemplate, times(1))
-        .send(eq(RESOURCES_UPDATES_TOPIC), anyString(), payloadCaptor.capture());
+    relayOutbox();
+    var records = sentRecords(RESOURCES_UPDATES_TOPIC);
+    assertThat(records).hasSize(1);
+    assertThat(records.getFirst().headers().lastHeader(PayloadCodec.CONTENT_TYPE_HEADER).value())
+        .asString(StandardCharsets.UTF_8)
+        .isEqualTo(PayloadFormat.JSON.contentType());
 
-    var payload = payloadCaptor.getValue();
+    var payload = new String(records.getFirst().value(), StandardCharsets.UTF_8);
     assertThat(payload).contains(RESOURCE_TYPE.name()).contains(RESOURCE_COUNTRY);
   }
 
@@ -131,87 +187,174 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
               assertThat(tuple.get(2)).isEqualTo(RESOURCE_COUNTRY2);
             });
 
-    var payloadCaptor = org.mockito.ArgumentCaptor.forClass(String.class);
-    verify(kafkaTemplate, times(2))
-        .send(eq(RESOURCES_UPDATES_TOPIC), anyString(), payloadCaptor.capture());
+    relayOutbox();
+    var records = sentRecords(RESOURCES_UPDATES_TOPIC);
+    assertThat(records).hasSize(2);
 
-    var allPayloads = payloadCaptor.getAllValues();
-    var updatePayload = allPayloads.getLast();
+    var updatePayload = new String(records.getLast().value(), StandardCharsets.UTF_8);
     assertThat(updatePayload).contains(RESOURCE_TYPE2.name()).contains(RESOURCE_COUNTRY2);
   }
 
   @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED) // the export runs on a worker thread
   @DisplayName("exportAllResources_withValidInput_sendsBulkExportKafkaMessage")
   void exportAllResources_withValidInput_sendsBulkExportKafkaMessage() throws Exception {
     // Given
     var characteristic = constructCharacteristicDto();
-    var location1 = constructLocationDto1();
-    var location2 = constructLocationDto2();
-    var resource1 = constructResourceDto(location1, List.of(characteristic));
-    var resource2 = constructResourceDto2(location2, List.of(characteristic));
-
-    var response1 =
-        MockMvcTestUtils.performAndExpect(
-                mockMvc,
-                post(ResourcesController.API_URL)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(resource1)),
-                201)
-            .andReturn()
-            .getResponse()
-            .getContentAsString();
-
-    var response2 =
-        MockMvcTestUtils.performAndExpect(
-                mockMvc,
-                post(ResourcesController.API_URL)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(resource2)),
-                201)
-            .andReturn()
-            .getResponse()
-            .getContentAsString();
-
-    var createdResource1 = objectMapper.readValue(response1, ResourceDto.class);
-    var createdResource2 = objectMapper.readValue(response2, ResourceDto.class);
+    createResource(constructResourceDto(constructLocationDto1(), List.of(characteristic)));
+    createResource(constructResourceDto2(constructLocationDto2(), List.of(characteristic)));
 
     // When
-    MockMvcTestUtils.performAndExpect(
-        mockMvc, post(ResourcesController.API_URL + "/bulk-export"), 202);
+    var job = startExport();
+    var finishedJob = awaitExportJob(job.getId());
 
     // Then
-    Assertions.assertNotNull(createdResource1.getId());
-    var savedResource1 = resourceRepository.findById(createdResource1.getId()).orElse(null);
-    Assertions.assertNotNull(createdResource2.getId());
-    var savedResource2 = resourceRepository.findById(createdResource2.getId()).orElse(null);
-    assertThat(savedResource1).isNotNull();
-    assertThat(savedResource2).isNotNull();
-
-    var payloadCaptor = org.mockito.ArgumentCaptor.forClass(String.class);
-    verify(kafkaTemplate, times(1))
-        .send(eq(BULK_EXPORT_TOPIC), eq(BULK_EXPORT_TOPIC), payloadCaptor.capture());
-
-    var payload = payloadCaptor.getValue();
+    assertThat(finishedJob.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+    assertThat(finishedJob.getTotalResources()).isEqualTo(2);
+    assertThat(finishedJob.getResourcesExported()).isEqualTo(2);
+    assertThat(finishedJob.getChunksSent()).isEqualTo(1);
+
+    var records = sentRecords(BULK_EXPORT_TOPIC);
+    assertThat(records)
+        .singleElement()
+        .extracting(ProducerRecord::key)
+        .isEqualTo(job.getId().toString());
+
+    var payload = new String(records.getFirst().value(), StandardCharsets.UTF_8);
     assertThat(payload)
         .contains(RESOURCE_TYPE.name())
         .contains(RESOURCE_TYPE2.name())
         .contains(RESOURCE_COUNTRY)
         .contains(RESOURCE_COUNTRY2);
 
-    // Verify the message is a valid JSON array containing the expected resources
-    java.util.List<ResourceDto> exportedResources =
-        objectMapper.readValue(
-            payload,
-            objectMapper
-                .getTypeFactory()
-                .constructCollectionType(java.util.List.class, ResourceDto.class));
-    assertThat(exportedResources)
+    var chunk = objectMapper.readValue(payload, BulkExportChunkDto.class);
+    assertThat(chunk.getExportId()).isEqualTo(job.getId());
+    assertThat(chunk.getSequence()).isZero();
+    assertThat(chunk.isLast()).isTrue();
+    assertThat(chunk.getResources())
         .hasSize(2)
         .anyMatch(r -> r.getType() == RESOURCE_TYPE && RESOURCE_COUNTRY.equals(r.getCountryCode()))
         .anyMatch(
             r -> r.getType() == RESOURCE_TYPE2 && RESOURCE_COUNTRY2.equals(r.getCountryCode()));
   }
 
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED) // the export runs on a worker thread
+  @DisplayName("exportAllResources_withMoreResourcesThanChunkSize_sendsSequencedChunks")
+  void exportAllResources_withMoreResourcesThanChunkSize_sendsSequencedChunks() throws Exception {
+    // Given
+    for (var i = 0; i < 3; i++) {
+      createResource(
+          constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    }
+
+    // When
+    var job = startExport();
+    var finishedJob = awaitExportJob(job.getId());
+
+    // Then
+    assertThat(finishedJob)
+        .extracting(
+            ExportJobDto::getStatus,
+            ExportJobDto::getResourcesExported,
+            ExportJobDto::getChunksSent)
+        .containsExactly(ExportJobStatus.COMPLETED, 3L, 2);
+
+    var records = sentRecords(BULK_EXPORT_TOPIC);
+    assertThat(records).extracting(ProducerRecord::key).containsOnly(job.getId().toString());
+
+    var chunks = new ArrayList<BulkExportChunkDto>();
+    for (var record : records) {
+      chunks.add(objectMapper.readValue(record.value(), BulkExportChunkDto.class));
+    }
+    assertThat(chunks)
+        .extracting(
+            BulkExportChunkDto::getSequence,
+            BulkExportChunkDto::isLast,
+            chunk -> chunk.getResources().size())
+        .containsExactly(tuple(0, false, 2), tuple(1, true, 1));
+  }
+
+  @Test
+  @DisplayName("readBulkExportChunk_withSmilePayload_streamsEachResource")
+  void readBulkExportChunk_withSmilePayload_streamsEachResource() throws Exception {
+    // Given
+    var exportId = UUID.randomUUID();
+    var resources =
+        List.of(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())),
+            constructResourceDto2(constructLocationDto2(), List.of(constructCharacteristicDto())));
+    var payload =
+        payloadCodec.encode(
+            new BulkExportChunkDto(exportId, 4, true, resources), PayloadFormat.SMILE);
+
+    // When
+    var streamedResources = new ArrayList<ResourceDto>();
+    var chunk = bulkExportChunkReader.read(payload, PayloadFormat.SMILE, streamedResources::add);
+
+    // Then
+    assertThat(chunk).isEqualTo(new BulkExportChunkReader.Chunk(exportId, 4, true, 2));
+    assertThat(streamedResources)
+        .extracting(ResourceDto::getType, ResourceDto::getCountryCode)
+        .containsExactly(
+            tuple(RESOURCE_TYPE, RESOURCE_COUNTRY), tuple(RESOURCE_TYPE2, RESOURCE_COUNTRY2));
+  }
+
+  @Test
+  @DisplayName("readBulkExportChunk_withNonObjectResource_failsChunk")
+  void readBulkExportChunk_withNonObjectResource_failsChunk() {
+    // Given
+    var payload =
+        """
+        {"exportId":"%s","sequence":0,"last":true,"resources":[{"countryCode":"EE"},42,{}]}
+        """
+            .formatted(UUID.randomUUID())
+            .getBytes(StandardCharsets.UTF_8);
+    var streamedResources = new ArrayList<ResourceDto>();
+
+    // When
+    var exception =
+        Assertions.assertThrows(
+            IOException.class,
+            () -> bulkExportChunkReader.read(payload, PayloadFormat.JSON, streamedResources::add));
+
+    // Then
+    assertThat(exception).hasMessageContaining("START_OBJECT");
+    assertThat(streamedResources).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("cancelExportJob_withQueuedJob_returnsCancelledJob")
+  void cancelExportJob_withQueuedJob_returnsCancelledJob() throws Exception {
+    // Given
+    var job = startExport(); // not committed, so no worker can claim it
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                delete(ResourcesController.API_URL + "/bulk-export/" + job.getId()),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var cancelledJob = objectMapper.readValue(response, ExportJobDto.class);
+    assertThat(cancelledJob.getStatus()).isEqualTo(ExportJobStatus.CANCELLED);
+    assertThat(cancelledJob.getFinishedAt()).isNotNull();
+    assertThat(sentRecords(BULK_EXPORT_TOPIC)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("getExportJob_withUnknownId_returns404")
+  void getExportJob_withUnknownId_returns404() throws Exception {
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, get(ResourcesController.API_URL + "/bulk-export/" + UUID.randomUUID()), 404);
+  }
+
   @Test
   @DisplayName("getAllResources_withExistingResources_returnsAllResources")
   void getAllResources_withExistingResources_returnsAllResources() throws Exception {
@@ -266,12 +409,186 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
                 .getTypeFactory()
                 .constructCollectionType(java.util.List.class, ResourceDto.class));
     assertThat(allResources).hasSize(2);
-    assertThat(allResources.get(0))
-        .extracting(ResourceDto::getId, ResourceDto::getType, ResourceDto::getCountryCode)
-        .containsExactly(createdResource1.getId(), RESOURCE_TYPE, RESOURCE_COUNTRY);
-    assertThat(allResources.get(1))
+    // Keyset order follows PostgreSQL UUID ordering, which matches the canonical string order
+    assertThat(allResources)
+        .extracting(ResourceDto::getId)
+        .isSortedAccordingTo(Comparator.comparing(Object::toString));
+    assertThat(allResources)
         .extracting(ResourceDto::getId, ResourceDto::getType, ResourceDto::getCountryCode)
-        .containsExactly(createdResource2.getId(), RESOURCE_TYPE2, RESOURCE_COUNTRY2);
+        .containsExactlyInAnyOrder(
+            tuple(createdResource1.getId(), RESOURCE_TYPE, RESOURCE_COUNTRY),
+            tuple(createdResource2.getId(), RESOURCE_TYPE2, RESOURCE_COUNTRY2));
+  }
+
+  @Test
+  @DisplayName("getAllResources_withLimit_returnsPagesLinkedByCursor")
+  void getAllResources_withLimit_returnsPagesLinkedByCursor() throws Exception {
+    // Given
+    var characteristic = constructCharacteristicDto();
+    var locations =
+        List.of(constructLocationDto1(), constructLocationDto2(), constructLocationDto1());
+    var createdIds = new ArrayList<UUID>();
+    for (var location : locations) {
+      var response =
+          MockMvcTestUtils.performAndExpect(
+                  mockMvc,
+                  post(ResourcesController.API_URL)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content(
+                          objectMapper.writeValueAsString(
+                              constructResourceDto(location, List.of(characteristic)))),
+                  201)
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      createdIds.add(objectMapper.readValue(response, ResourceDto.class).getId());
+    }
+
+    // When
+    var firstPage =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                get(ResourcesController.API_URL).param("limit", "2"),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse();
+    var nextCursor = firstPage.getHeader(NEXT_CURSOR_HEADER);
+
+    var secondPage =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                get(ResourcesController.API_URL).param("limit", "2").param("cursor", nextCursor),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse();
+
+    // Then
+    var type =
+        objectMapper.getTypeFactory().constructCollectionType(List.class, ResourceDto.class);
+    List<ResourceDto> firstItems = objectMapper.readValue(firstPage.getContentAsString(), type);
+    List<ResourceDto> secondItems = objectMapper.readValue(secondPage.getContentAsString(), type);
+
+    assertThat(nextCursor).isNotBlank();
+    assertThat(firstItems).hasSize(2);
+    assertThat(secondItems).hasSize(1);
+    assertThat(secondPage.getHeader(NEXT_CURSOR_HEADER)).isNull();
+
+    var pagedIds = new ArrayList<UUID>();
+    firstItems.forEach(r -> pagedIds.add(r.getId()));
+    secondItems.forEach(r -> pagedIds.add(r.getId()));
+    assertThat(pagedIds)
+        .containsExactlyInAnyOrderElementsOf(createdIds)
+        .isSortedAccordingTo(Comparator.comparing(Object::toString));
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED) // streaming runs on another thread
+  @DisplayName("streamAllResources_withNdjsonAccept_writesOneResourcePerLine")
+  void streamAllResources_withNdjsonAccept_writesOneResourcePerLine() throws Exception {
+    // Given
+    var characteristic = constructCharacteristicDto();
+    var resource1 = constructResourceDto(constructLocationDto1(), List.of(characteristic));
+    var resource2 = constructResourceDto2(constructLocationDto2(), List.of(characteristic));
+    for (var resourceDto : List.of(resource1, resource2)) {
+      MockMvcTestUtils.performAndExpect(
+          mockMvc,
+          post(ResourcesController.API_URL)
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(resourceDto)),
+          201);
+    }
+
+    // When
+    var asyncResult =
+        mockMvc
+            .perform(get(ResourcesController.API_URL).accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, asyncDispatch(asyncResult), 200, MediaType.APPLICATION_NDJSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var streamedResources = new ArrayList<ResourceDto>();
+    for (var line : response.lines().toList()) {
+      streamedResources.add(objectMapper.readValue(line, ResourceDto.class));
+    }
+    assertThat(streamedResources)
+        .extracting(ResourceDto::getType, ResourceDto::getCountryCode)
+        .containsExactlyInAnyOrder(
+            tuple(RESOURCE_TYPE, RESOURCE_COUNTRY), tuple(RESOURCE_TYPE2, RESOURCE_COUNTRY2));
+  }
+
+  @Test
+  @DisplayName("getAllResources_withInvalidCursor_returns400")
+  void getAllResources_withInvalidCursor_returns400() throws Exception {
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, get(ResourcesController.API_URL).param("cursor", "not-a-cursor"), 400);
+  }
+
+  @Test
+  @DisplayName("getAllResources_withFilters_returnsOnlyMatchingResources")
+  void getAllResources_withFilters_returnsOnlyMatchingResources() throws Exception {
+    // Given
+    var characteristic = constructCharacteristicDto();
+    var otherCharacteristic = constructCharacteristicDto();
+    otherCharacteristic.setValue(CHARACTERISTIC_VALUE2);
+    var resources =
+        List.of(
+            constructResourceDto(constructLocationDto1(), List.of(characteristic)),
+            constructResourceDto2(constructLocationDto2(), List.of(characteristic)),
+            constructResourceDto(constructLocationDto1(), List.of(otherCharacteristic)));
+    var createdIds = new ArrayList<UUID>();
+    for (var resourceDto : resources) {
+      var response =
+          MockMvcTestUtils.performAndExpect(
+                  mockMvc,
+                  post(ResourcesController.API_URL)
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content(objectMapper.writeValueAsString(resourceDto)),
+                  201)
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      createdIds.add(objectMapper.readValue(response, ResourceDto.class).getId());
+    }
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                get(ResourcesController.API_URL)
+                    .param("type", RESOURCE_TYPE.name())
+                    .param("countryCode", RESOURCE_COUNTRY)
+                    .param("characteristicType", CharacteristicType.CONSUMPTION_TYPE.name())
+                    .param("characteristicValue", CHARACTERISTIC_VALUE),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var type =
+        objectMapper.getTypeFactory().constructCollectionType(List.class, ResourceDto.class);
+    List<ResourceDto> matchingResources = objectMapper.readValue(response, type);
+    assertThat(matchingResources)
+        .extracting(ResourceDto::getId)
+        .containsExactly(createdIds.getFirst());
+  }
+
+  @Test
+  @DisplayName("getAllResources_withInvalidCountryCodeFilter_returns400")
+  void getAllResources_withInvalidCountryCodeFilter_returns400() throws Exception {
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, get(ResourcesController.API_URL).param("countryCode", "estonia"), 400);
   }
 
   @Test
@@ -329,6 +646,53 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
         .isEqualTo(CHARACTERISTIC_CODE);
   }
 
+  @Test
+  @DisplayName("getResourceById_afterUpdate_returnsUpdatedResource")
+  void getResourceById_afterUpdate_returnsUpdatedResource() throws Exception {
+    // Given
+    var characteristic = constructCharacteristicDto();
+    var location = constructLocationDto1();
+    var createResponse =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        objectMapper.writeValueAsString(
+                            constructResourceDto(location, List.of(characteristic)))),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    var createdResource = objectMapper.readValue(createResponse, ResourceDto.class);
+    var resourceUrl = ResourcesController.API_URL + "/" + createdResource.getId();
+    MockMvcTestUtils.performAndExpect(mockMvc, get(resourceUrl), 200, MediaType.APPLICATION_JSON);
+
+    var updatedResourceDto = constructResourceDto2(location, List.of(characteristic));
+    updatedResourceDto.setId(createdResource.getId());
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        put(ResourcesController.API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updatedResourceDto)),
+        200);
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, get(resourceUrl), 200, MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var foundResource = objectMapper.readValue(response, ResourceDto.class);
+    assertThat(foundResource)
+        .extracting(ResourceDto::getType, ResourceDto::getCountryCode)
+        .containsExactly(RESOURCE_TYPE2, RESOURCE_COUNTRY2);
+    assertThat(foundResource.getVersion()).isGreaterThan(createdResource.getVersion());
+  }
+
   @Test
   @DisplayName("getResourceById_withNonExistentId_returns404")
   void getResourceById_withNonExistentId_returns404() throws Exception {
@@ -374,6 +738,709 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
     assertThat(deletedResource).isNull();
   }
 
+  @Test
+  @DisplayName("getResourceById_withCurrentETag_returns304")
+  void getResourceById_withCurrentETag_returns304() throws Exception {
+    // Given
+    var resourceDto =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var createResponse =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(resourceDto)),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    var createdResource = objectMapper.readValue(createResponse, ResourceDto.class);
+    var resourceUrl = ResourcesController.API_URL + "/" + createdResource.getId();
+    var eTag =
+        MockMvcTestUtils.performAndExpect(mockMvc, get(resourceUrl), 200)
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, get(resourceUrl).header(HttpHeaders.IF_NONE_MATCH, eTag), 304)
+            .andReturn()
+            .getResponse();
+
+    // Then
+    assertThat(eTag).isEqualTo("\"" + createdResource.getVersion() + "\"");
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("getResourceById_afterCharacteristicAdded_returnsNewETag")
+  void getResourceById_afterCharacteristicAdded_returnsNewETag() throws Exception {
+    // Given
+    var resourceDto =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var createResponse =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(resourceDto)),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    var createdResource = objectMapper.readValue(createResponse, ResourceDto.class);
+    var resourceUrl = ResourcesController.API_URL + "/" + createdResource.getId();
+    var eTag =
+        MockMvcTestUtils.performAndExpect(mockMvc, get(resourceUrl), 200)
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        post(CharacteristicsController.API_URL + "/resource/" + createdResource.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(constructCharacteristicDto())),
+        201);
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, get(resourceUrl).header(HttpHeaders.IF_NONE_MATCH, eTag), 200)
+            .andReturn()
+            .getResponse();
+
+    // Then
+    assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    var foundResource = objectMapper.readValue(response.getContentAsString(), ResourceDto.class);
+    assertThat(foundResource.getCharacteristics()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("createCharacteristic_forExistingResource_publishesResourceSnapshot")
+  void createCharacteristic_forExistingResource_publishesResourceSnapshot() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+
+    // When
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        post(CharacteristicsController.API_URL + "/resource/" + createdResource.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(constructCharacteristicDto())),
+        201);
+    relayOutbox();
+
+    // Then
+    var record = sentRecords(RESOURCES_UPDATES_TOPIC).getLast();
+    assertThat(ResourceEventType.of(record.headers())).isEqualTo(ResourceEventType.SNAPSHOT);
+    var snapshot = objectMapper.readValue(record.value(), ResourceDto.class);
+    assertThat(snapshot.getId()).isEqualTo(createdResource.getId());
+    assertThat(snapshot.getVersion()).isEqualTo(createdResource.getVersion() + 1);
+    assertThat(snapshot.getCharacteristics()).hasSize(2);
+    assertThat(resourceSnapshotPublisher.publishPending()).isZero();
+  }
+
+  @Test
+  @DisplayName("updateResource_withCurrentIfMatch_returnsNewETag")
+  void updateResource_withCurrentIfMatch_returnsNewETag() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var updateDto =
+        constructResourceDto2(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    updateDto.setId(createdResource.getId());
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                put(ResourcesController.API_URL)
+                    .header(HttpHeaders.IF_MATCH, "\"" + createdResource.getVersion() + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(updateDto)),
+                200)
+            .andReturn()
+            .getResponse();
+
+    // Then
+    var updatedResource = objectMapper.readValue(response.getContentAsString(), ResourceDto.class);
+    assertThat(updatedResource.getVersion()).isEqualTo(createdResource.getVersion() + 1);
+    assertThat(response.getHeader(HttpHeaders.ETAG))
+        .isEqualTo("\"" + updatedResource.getVersion() + "\"");
+  }
+
+  @Test
+  @DisplayName("updateResource_withDuplicateCharacteristicIds_returns400")
+  void updateResource_withDuplicateCharacteristicIds_returns400() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var characteristic = createdResource.getCharacteristics().getFirst();
+    var duplicate = constructCharacteristicDto();
+    duplicate.setId(characteristic.getId());
+    createdResource.setCharacteristics(List.of(characteristic, duplicate));
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        put(ResourcesController.API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(createdResource)),
+        400);
+  }
+
+  @Test
+  @DisplayName("updateResource_withStaleIfMatch_returns412")
+  void updateResource_withStaleIfMatch_returns412() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var updateDto =
+        constructResourceDto2(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    updateDto.setId(createdResource.getId());
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        put(ResourcesController.API_URL)
+            .header(HttpHeaders.IF_MATCH, "\"" + (createdResource.getVersion() + 1) + "\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateDto)),
+        412);
+    relayOutbox();
+    assertThat(sentRecords(RESOURCES_UPDATES_TOPIC)).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("patchResource_withCountryCodeOnly_keepsOtherFields")
+  void patchResource_withCountryCodeOnly_keepsOtherFields() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                patch(ResourcesController.API_URL + "/" + createdResource.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + createdResource.getVersion() + "\"")
+                    .contentType(JsonMergePatch.MEDIA_TYPE)
+                    .content("{\"countryCode\": \"" + RESOURCE_COUNTRY2 + "\"}"),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    var patchedResource = objectMapper.readValue(response, ResourceDto.class);
+    assertThat(patchedResource.getCountryCode()).isEqualTo(RESOURCE_COUNTRY2);
+    assertThat(patchedResource.getType()).isEqualTo(createdResource.getType());
+    assertThat(patchedResource.getLocation()).isEqualTo(createdResource.getLocation());
+    assertThat(patchedResource.getCharacteristics())
+        .isEqualTo(createdResource.getCharacteristics());
+    assertThat(patchedResource.getVersion()).isGreaterThan(createdResource.getVersion());
+  }
+
+  @Test
+  @DisplayName("patchResource_removingRequiredField_returns400")
+  void patchResource_removingRequiredField_returns400() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        patch(ResourcesController.API_URL + "/" + createdResource.getId())
+            .contentType(JsonMergePatch.MEDIA_TYPE)
+            .content("{\"location\": {\"city\": null}}"),
+        400);
+  }
+
+  @Test
+  @DisplayName("updateResource_afterConcurrentUpdate_returns409")
+  void updateResource_afterConcurrentUpdate_returns409() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var updateDto =
+        constructResourceDto2(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    updateDto.setId(createdResource.getId());
+
+    // Another writer commits while this request still holds the old version
+    resourceRepository.flush();
+    jdbcTemplate.update(
+        "UPDATE resource SET version = version + 1 WHERE id = ?", createdResource.getId());
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        put(ResourcesController.API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateDto)),
+        409);
+  }
+
+  @Test
+  @DisplayName("batchGetResources_withFoundAndMissingIds_returnsBothInRequestOrder")
+  void batchGetResources_withFoundAndMissingIds_returnsBothInRequestOrder() throws Exception {
+    // Given
+    var firstResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var secondResource =
+        createResource(
+            constructResourceDto2(constructLocationDto2(), List.of(constructCharacteristicDto())));
+    var missingId = UUID.randomUUID();
+    var request =
+        new BatchGetRequestDto(List.of(secondResource.getId(), missingId, firstResource.getId()));
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL + "/batch-get")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    BatchGetResultDto<ResourceDto> result =
+        objectMapper.readValue(response, new TypeReference<>() {});
+    assertThat(result.getItems())
+        .extracting(ResourceDto::getId)
+        .containsExactly(secondResource.getId(), firstResource.getId());
+    assertThat(result.getMissingIds()).containsExactly(missingId);
+  }
+
+  @Test
+  @DisplayName("batchGetResources_withTooManyIds_returns400")
+  void batchGetResources_withTooManyIds_returns400() throws Exception {
+    // Given
+    var request =
+        new BatchGetRequestDto(
+            Stream.generate(UUID::randomUUID).limit(MAX_BATCH_GET_SIZE + 1).toList());
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        post(ResourcesController.API_URL + "/batch-get")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)),
+        400);
+  }
+
+  @Test
+  @DisplayName("bulkCreateResources_withValidAndInvalidItems_reportsResultPerItem")
+  void bulkCreateResources_withValidAndInvalidItems_reportsResultPerItem() throws Exception {
+    // Given
+    var validResource =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var invalidResource =
+        constructResourceDto2(constructLocationDto2(), List.of(constructCharacteristicDto()));
+    invalidResource.setCountryCode("lv");
+    var body =
+        "[%s, %s, {\"type\": \"UNKNOWN\"}, %s]"
+            .formatted(
+                objectMapper.writeValueAsString(validResource),
+                objectMapper.writeValueAsString(invalidResource),
+                objectMapper.writeValueAsString(validResource));
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    List<BulkItemResultDto> results = objectMapper.readValue(response, new TypeReference<>() {});
+    assertThat(results).extracting(BulkItemResultDto::getIndex).containsExactly(0, 1, 2, 3);
+    assertThat(results.get(0).getId()).isNotNull();
+    assertThat(results.get(1).getErrors()).containsExactly("countryCode: country_code_iso_pattern");
+    assertThat(results.get(2).getErrors()).hasSize(1);
+    assertThat(results.get(3).getId()).isNotNull();
+    assertThat(
+            resourceRepository.findAllById(
+                List.of(results.get(0).getId(), results.get(3).getId())))
+        .hasSize(2);
+    relayOutbox();
+    assertThat(sentRecords(RESOURCES_UPDATES_TOPIC)).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("bulkCreateResources_withMalformedItemAfterWrittenChunk_returns207")
+  void bulkCreateResources_withMalformedItemAfterWrittenChunk_returns207() throws Exception {
+    // Given
+    var validResource =
+        objectMapper.writeValueAsString(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var validItems = Collections.nCopies(BulkResourceImport.CHUNK_SIZE + 1, validResource);
+    var body = "[" + String.join(", ", validItems) + ", {\"type\": }, " + validResource + "]";
+
+    // When
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL + "/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body),
+                207,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    // Then
+    List<BulkItemResultDto> results = objectMapper.readValue(response, new TypeReference<>() {});
+    assertThat(results).hasSize(BulkResourceImport.CHUNK_SIZE + 2);
+    assertThat(results.subList(0, BulkResourceImport.CHUNK_SIZE))
+        .allSatisfy(result -> assertThat(result.getId()).isNotNull());
+    var notWritten = results.get(BulkResourceImport.CHUNK_SIZE);
+    assertThat(notWritten.getId()).isNull();
+    assertThat(notWritten.getErrors()).hasSize(1);
+    assertThat(results.getLast().getIndex()).isEqualTo(BulkResourceImport.CHUNK_SIZE + 1);
+    assertThat(results.getLast().getErrors().getFirst()).startsWith("Malformed bulk request body");
+    assertThat(resourceRepository.count()).isEqualTo(BulkResourceImport.CHUNK_SIZE);
+  }
+
+  @Test
+  @DisplayName("bulkCreateResources_withNonArrayBody_returns400")
+  void bulkCreateResources_withNonArrayBody_returns400() throws Exception {
+    // Given
+    var body = objectMapper.writeValueAsString(constructResourceDto(constructLocationDto1(), null));
+
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        post(ResourcesController.API_URL + "/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body),
+        400);
+  }
+
+  @Test
+  @DisplayName("importResources_withNdjson_importsValidRowsAndReportsRejects")
+  void importResources_withNdjson_importsValidRowsAndReportsRejects() throws Exception {
+    // Given
+    var validResource =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var invalidResource = constructResourceDto2(constructLocationDto2(), List.of());
+    var body =
+        String.join(
+            "\n",
+            objectMapper.writeValueAsString(validResource),
+            objectMapper.writeValueAsString(invalidResource),
+            "{not json",
+            objectMapper.writeValueAsString(validResource));
+
+    // When
+    var report = importResources(MediaType.APPLICATION_NDJSON_VALUE, body);
+
+    // Then
+    assertThat(report.getRowsRead()).isEqualTo(4);
+    assertThat(report.getRowsImported()).isEqualTo(2);
+    assertThat(report.getRowsRejected()).isEqualTo(2);
+    assertThat(report.getRejects()).extracting(BulkItemResultDto::getIndex).containsExactly(1, 2);
+    assertThat(report.getRejects().getFirst().getErrors())
+        .containsExactly("characteristics: characteristics_min_size");
+    assertThat(resourceRepository.count()).isEqualTo(2);
+    assertThat(characteristicRepository.count()).isEqualTo(2);
+    assertThat(outboxRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("importResources_withCsv_rejectsValuesTooLongForTheDatabase")
+  void importResources_withCsv_rejectsValuesTooLongForTheDatabase() throws Exception {
+    // Given
+    var body =
+        """
+        type,countryCode,streetAddress,city,postalCode,locationCountryCode,characteristics
+        METERING_POINT,EE,"Main St 1, apt 2",Tallinn,10111,EE,\
+        C1:CONSUMPTION_TYPE:private;C2:CHARGING_POINT:yes
+        CONNECTION_POINT,EE,Side St 2,Tartu,50050,EE,C1:CONSUMPTION_TYPE:%s
+        """
+            .formatted("x".repeat(300));
+
+    // When
+    var report = importResources(ResourcesController.TEXT_CSV_VALUE, body);
+
+    // Then
+    assertThat(report.getRowsImported()).isEqualTo(1);
+    assertThat(report.getRejects()).extracting(BulkItemResultDto::getIndex).containsExactly(1);
+    var imported = resourceRepository.findAll().getFirst();
+    assertThat(imported.getLocation().getStreetAddress()).isEqualTo("Main St 1, apt 2");
+    assertThat(imported.getCharacteristics())
+        .extracting(Characteristic::getCode, Characteristic::getValue)
+        .containsExactlyInAnyOrder(tuple("C1", "private"), tuple("C2", "yes"));
+  }
+
+  @Test
+  @DisplayName("importResourcesFromFile_outsideImportDirectory_returns400")
+  void importResourcesFromFile_outsideImportDirectory_returns400() throws Exception {
+    // When & Then
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        post(ResourcesController.API_URL + "/import-file")
+            .param("path", "../../etc/passwd")
+            .param("format", "CSV"),
+        400);
+  }
+
+  @Test
+  @DisplayName("deleteResourceById_withValidId_sendsTombstone")
+  void deleteResourceById_withValidId_sendsTombstone() throws Exception {
+    // Given
+    var resourceDto =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var createResponse =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(resourceDto)),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    var createdResource = objectMapper.readValue(createResponse, ResourceDto.class);
+
+    // When
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, delete(ResourcesController.API_URL + "/" + createdResource.getId()), 204);
+
+    // Then
+    relayOutbox();
+    var records = sentRecords(RESOURCES_UPDATES_TOPIC);
+    assertThat(records).hasSize(2);
+    assertThat(records.getLast().key()).isEqualTo(createdResource.getId().toString());
+    assertThat(records.getLast().value()).isNull();
+    assertThat(records.getLast().headers().lastHeader(PayloadCodec.CONTENT_TYPE_HEADER)).isNull();
+  }
+
+  @Test
+  @DisplayName("createResource_beforeOutboxRelay_sendsNothing")
+  void createResource_beforeOutboxRelay_sendsNothing() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    assertThat(sentRecords(RESOURCES_UPDATES_TOPIC)).isEmpty();
+
+    // When
+    outboxRepository.flush();
+    var relayed = outboxRelay.relayPending();
+
+    // Then
+    assertThat(relayed).isEqualTo(1);
+    assertThat(sentRecords(RESOURCES_UPDATES_TOPIC))
+        .singleElement()
+        .extracting(ProducerRecord::key)
+        .isEqualTo(createdResource.getId().toString());
+    assertThat(outboxRepository.count()).isZero();
+  }
+
+  @Test
+  @DisplayName("updateResource_twice_relaysEventsInWriteOrder")
+  void updateResource_twice_relaysEventsInWriteOrder() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    var updateDto =
+        constructResourceDto2(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    updateDto.setId(createdResource.getId());
+
+    // When
+    for (var countryCode : List.of(RESOURCE_COUNTRY2, RESOURCE_COUNTRY)) {
+      updateDto.setCountryCode(countryCode);
+      MockMvcTestUtils.performAndExpect(
+          mockMvc,
+          put(ResourcesController.API_URL)
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(objectMapper.writeValueAsString(updateDto)),
+          200);
+    }
+    relayOutbox();
+
+    // Then
+    var records = sentRecords(RESOURCES_UPDATES_TOPIC);
+    assertThat(records).hasSize(3);
+    var versions = new ArrayList<Long>();
+    for (var record : records) {
+      versions.add(objectMapper.readTree(record.value()).get("version").asLong());
+    }
+    assertThat(versions).isSorted().doesNotHaveDuplicates();
+  }
+
+  @Test
+  @DisplayName("patchResource_withCountryCodeOnly_publishesDeltaOfChangedField")
+  void patchResource_withCountryCodeOnly_publishesDeltaOfChangedField() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+
+    // When
+    patchCountryCode(createdResource, RESOURCE_COUNTRY2);
+    relayOutbox();
+
+    // Then
+    var record = sentRecords(RESOURCES_UPDATES_TOPIC).getLast();
+    assertThat(ResourceEventType.of(record.headers())).isEqualTo(ResourceEventType.DELTA);
+    var delta = objectMapper.readValue(record.value(), ResourceDeltaDto.class);
+    assertThat(delta.getId()).isEqualTo(createdResource.getId());
+    assertThat(delta.getBaseVersion()).isEqualTo(createdResource.getVersion());
+    assertThat(delta.getVersion()).isEqualTo(createdResource.getVersion() + 1);
+    assertThat(delta.getCountryCode()).isEqualTo(RESOURCE_COUNTRY2);
+    assertThat(delta.getType()).isNull();
+    assertThat(delta.getLocation()).isNull();
+    assertThat(delta.getAddedCharacteristics()).isNull();
+    assertThat(delta.getUpdatedCharacteristics()).isNull();
+    assertThat(delta.getRemovedCharacteristicIds()).isNull();
+  }
+
+  @Test
+  @DisplayName("patchResource_afterCharacteristicPatch_publishesDeltaOfPublishedVersion")
+  void patchResource_afterCharacteristicPatch_publishesDeltaOfPublishedVersion()
+      throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        patch(
+                CharacteristicsController.API_URL
+                    + "/"
+                    + createdResource.getCharacteristics().getFirst().getId())
+            .contentType(JsonMergePatch.MEDIA_TYPE)
+            .content("{\"value\": \"" + CHARACTERISTIC_VALUE2 + "\"}"),
+        200);
+    createdResource.setVersion(createdResource.getVersion() + 1);
+
+    // When
+    patchCountryCode(createdResource, RESOURCE_COUNTRY2);
+    relayOutbox();
+
+    // Then
+    var records = sentRecords(RESOURCES_UPDATES_TOPIC);
+    var snapshotRecord = records.get(records.size() - 2);
+    assertThat(ResourceEventType.of(snapshotRecord.headers()))
+        .isEqualTo(ResourceEventType.SNAPSHOT);
+    var snapshot = objectMapper.readValue(snapshotRecord.value(), ResourceDto.class);
+    assertThat(snapshot.getCharacteristics())
+        .extracting(CharacteristicDto::getValue)
+        .containsExactly(CHARACTERISTIC_VALUE2);
+    var delta = objectMapper.readValue(records.getLast().value(), ResourceDeltaDto.class);
+    assertThat(delta.getBaseVersion()).isEqualTo(snapshot.getVersion());
+    assertThat(delta.getVersion()).isEqualTo(snapshot.getVersion() + 1);
+  }
+
+  @Test
+  @DisplayName("publishPendingSnapshots_afterDelta_publishesFullSnapshotOnce")
+  void publishPendingSnapshots_afterDelta_publishesFullSnapshotOnce() throws Exception {
+    // Given
+    var createdResource =
+        createResource(
+            constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto())));
+    patchCountryCode(createdResource, RESOURCE_COUNTRY2);
+    outboxRepository.flush();
+
+    // When
+    var published = resourceSnapshotPublisher.publishPending();
+    relayOutbox();
+
+    // Then
+    assertThat(published).isEqualTo(1);
+    var record = sentRecords(RESOURCES_UPDATES_TOPIC).getLast();
+    assertThat(ResourceEventType.of(record.headers())).isEqualTo(ResourceEventType.SNAPSHOT);
+    var snapshot = objectMapper.readValue(record.value(), ResourceDto.class);
+    assertThat(snapshot.getId()).isEqualTo(createdResource.getId());
+    assertThat(snapshot.getVersion()).isEqualTo(createdResource.getVersion() + 1);
+    assertThat(snapshot.getCountryCode()).isEqualTo(RESOURCE_COUNTRY2);
+    assertThat(snapshot.getCharacteristics()).hasSize(1);
+    assertThat(resourceSnapshotPublisher.publishPending()).isZero();
+  }
+
+  @Test
+  @DisplayName("getResourceById_afterNewerRemoteUpdate_evictsCachedResponse")
+  void getResourceById_afterNewerRemoteUpdate_evictsCachedResponse() throws Exception {
+    // Given
+    var resourceDto =
+        constructResourceDto(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    var createResponse =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(resourceDto)),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    var createdResource = objectMapper.readValue(createResponse, ResourceDto.class);
+    var resourceId = createdResource.getId();
+    MockMvcTestUtils.performAndExpect(
+        mockMvc, get(ResourcesController.API_URL + "/" + resourceId), 200);
+    assertThat(resourceResponseCache.get(resourceId)).isNotNull();
+
+    var remoteUpdate =
+        constructResourceDto2(constructLocationDto1(), List.of(constructCharacteristicDto()));
+    remoteUpdate.setId(resourceId);
+    remoteUpdate.setVersion(createdResource.getVersion() + 1);
+
+    var record =
+        new ConsumerRecord<>(
+            RESOURCES_UPDATES_TOPIC,
+            0,
+            0L,
+            resourceId.toString(),
+            payloadCodec.encode(remoteUpdate, PayloadFormat.CBOR));
+    record.headers().add(PayloadCodec.contentTypeHeader(PayloadFormat.CBOR));
+
+    // When
+    var acknowledgment = mock(Acknowledgment.class);
+    kafkaConsumerService.listenResourceUpdates(List.of(record), acknowledgment);
+
+    // Then
+    verify(acknowledgment).acknowledge();
+    assertThat(resourceResponseCache.get(resourceId)).isNull();
+    assertThat(
+            meterRegistry
+                .get("kafka.consumer.records")
+                .tags("topic", RESOURCES_UPDATES_TOPIC, "partition", "0")
+                .counter()
+                .count())
+        .isPositive();
+
+    resourceResponseCache.put(resourceId, createdResource.getVersion(), new byte[] {'{', '}'});
+    assertThat(resourceResponseCache.get(resourceId)).isNull();
+  }
+
   @Test
   @DisplayName("deleteResourceById_withNonExistentId_returns404")
   void deleteResourceById_withNonExistentId_returns404() throws Exception {
@@ -384,4 +1451,86 @@ class ResourceControllerIntegrationTest extends BaseIntegrationTest {
     MockMvcTestUtils.performAndExpect(
         mockMvc, delete(ResourcesController.API_URL + "/" + nonExistentId), 404);
   }
+
+  private ResourceDto createResource(ResourceDto resourceDto) throws Exception {
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(resourceDto)),
+                201)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(response, ResourceDto.class);
+  }
+
+  private void patchCountryCode(ResourceDto resource, String countryCode) throws Exception {
+    MockMvcTestUtils.performAndExpect(
+        mockMvc,
+        patch(ResourcesController.API_URL + "/" + resource.getId())
+            .header(HttpHeaders.IF_MATCH, "\"" + resource.getVersion() + "\"")
+            .contentType(JsonMergePatch.MEDIA_TYPE)
+            .content("{\"countryCode\": \"" + countryCode + "\"}"),
+        200);
+  }
+
+  private ExportJobDto startExport() throws Exception {
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc, post(ResourcesController.API_URL + "/bulk-export"), 202)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(response, ExportJobDto.class);
+  }
+
+  private ExportJobDto awaitExportJob(UUID jobId) throws Exception {
+    var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (true) {
+      var response =
+          MockMvcTestUtils.performAndExpect(
+                  mockMvc, get(ResourcesController.API_URL + "/bulk-export/" + jobId), 200)
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      var job = objectMapper.readValue(response, ExportJobDto.class);
+      var unfinished =
+          job.getStatus() == ExportJobStatus.QUEUED || job.getStatus() == ExportJobStatus.RUNNING;
+      if (!unfinished || System.nanoTime() > deadline) {
+        return job;
+      }
+      Thread.sleep(50);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ProducerRecord<String, byte[]>> sentRecords(String topic) {
+    ArgumentCaptor<ProducerRecord<String, byte[]>> captor =
+        ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(kafkaTemplate, atLeast(0)).send(captor.capture());
+    return captor.getAllValues().stream().filter(record -> topic.equals(record.topic())).toList();
+  }
+
+  // Outbox rows written by the requests are only flushed with the test transaction
+  private void relayOutbox() {
+    outboxRepository.flush();
+    outboxRelay.relayPending();
+  }
+
+  private ImportReportDto importResources(String contentType, String body) throws Exception {
+    var response =
+        MockMvcTestUtils.performAndExpect(
+                mockMvc,
+                post(ResourcesController.API_URL + "/import")
+                    .contentType(contentType)
+                    .content(body),
+                200,
+                MediaType.APPLICATION_JSON)
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(response, ImportReportDto.class);
+  }
 }
@@ -0,0 +1,337 @@
+package com.martinluik.resourcesmanager.rest;
+
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructCharacteristic;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructCharacteristicDto;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocation;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.mapper.ResourceMapper;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import com.martinluik.resourcesmanager.service.CharacteristicService;
+import com.martinluik.resourcesmanager.service.ResourceService;
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+class ResourceReadPerformanceIntegrationTest extends BaseIntegrationTest {
+
+  private static final int STREAMED_RESOURCES = 1_000_000;
+  private static final int HEAP_SAMPLE_INTERVAL = 100_000;
+  private static final long MAX_HEAP_GROWTH_BYTES = 64L * 1024 * 1024;
+
+  private static final int LISTED_RESOURCES = 25;
+  private static final int EXPORT_FETCH_SIZE = 10;
+  private static final int ALLOCATION_RESOURCES = 500;
+  private static final int ALLOCATION_WARMUP_ROUNDS = 20;
+  private static final int ALLOCATION_MEASURED_ROUNDS = 50;
+  private static final String ENTITY_QUERY =
+      "select r from Resource r join fetch r.location left join fetch r.characteristics c"
+          + " order by r.id, c.id";
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private ResourceService resourceService;
+  @Autowired private ResourceReadRepository resourceReadRepository;
+  @Autowired private CharacteristicService characteristicService;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private ResourceMapper resourceMapper;
+
+  @Test
+  @DisplayName("getAllResources_withManyResources_usesFixedNumberOfStatements")
+  void getAllResources_withManyResources_usesFixedNumberOfStatements() {
+    // Given
+    saveResourcesWithCharacteristics(LISTED_RESOURCES);
+    var statistics = clearedStatistics();
+
+    // When
+    var page = resourceService.getAllResources(new ResourceFilterDto(), null, LISTED_RESOURCES);
+
+    // Then
+    assertThat(page.getItems())
+        .hasSize(LISTED_RESOURCES)
+        .allSatisfy(
+            resource -> {
+              assertThat(resource.getLocation()).isNotNull();
+              assertThat(resource.getCharacteristics()).hasSize(2);
+            });
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("getAllResources_withProjection_allocatesLessThanEntityMapping")
+  void getAllResources_withProjection_allocatesLessThanEntityMapping() {
+    // Given
+    saveResourcesWithCharacteristics(ALLOCATION_RESOURCES);
+    clearedStatistics();
+    for (var i = 0; i < ALLOCATION_WARMUP_ROUNDS; i++) {
+      readThroughEntities();
+      readThroughProjection();
+    }
+
+    // When
+    var entityBytes = allocatedBytes(this::readThroughEntities);
+    var projectionBytes = allocatedBytes(this::readThroughProjection);
+
+    // Then
+    assertThat(readThroughProjection()).isEqualTo(readThroughEntities());
+    assertThat(projectionBytes).isLessThan(entityBytes);
+  }
+
+  @Test
+  @DisplayName("getResource_withCharacteristics_usesSingleStatement")
+  void getResource_withCharacteristics_usesSingleStatement() {
+    // Given
+    var resources = saveResourcesWithCharacteristics(1);
+    var statistics = clearedStatistics();
+
+    // When
+    var resource = resourceService.getResource(resources.getFirst().getId());
+
+    // Then
+    assertThat(resource.getLocation()).isNotNull();
+    assertThat(resource.getCharacteristics()).hasSize(2);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED) // cache entries are shared on commit
+  @DisplayName("getResource_readTwice_servesSecondReadFromSecondLevelCache")
+  void getResource_readTwice_servesSecondReadFromSecondLevelCache() {
+    // Given
+    var resourceId = saveResourceWithCharacteristics(2);
+    resourceService.getResource(resourceId);
+    var statistics = resetStatistics();
+
+    // When
+    var resource = resourceService.getResource(resourceId);
+
+    // Then
+    assertThat(resource.getLocation()).isNotNull();
+    assertThat(resource.getCharacteristics()).hasSize(2);
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED) // cache entries are shared on commit
+  @DisplayName("createCharacteristic_afterCachedRead_evictsCachedCharacteristics")
+  void createCharacteristic_afterCachedRead_evictsCachedCharacteristics() {
+    // Given
+    var resourceId = saveResourceWithCharacteristics(1);
+    resourceService.getResource(resourceId);
+
+    // When
+    characteristicService.createCharacteristic(constructCharacteristicDto(), resourceId);
+
+    // Then
+    assertThat(resourceService.getResource(resourceId).getCharacteristics()).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("getResources_withManyIds_usesSingleStatementAndKeepsRequestOrder")
+  void getResources_withManyIds_usesSingleStatementAndKeepsRequestOrder() {
+    // Given
+    var requestedIds =
+        new ArrayList<>(
+            saveResourcesWithCharacteristics(LISTED_RESOURCES).stream()
+                .map(Resource::getId)
+                .toList());
+    Collections.reverse(requestedIds);
+    var missingId = UUID.randomUUID();
+    requestedIds.add(LISTED_RESOURCES / 2, missingId);
+    var statistics = clearedStatistics();
+
+    // When
+    var result = resourceService.getResources(requestedIds);
+
+    // Then
+    assertThat(result.getItems())
+        .extracting(ResourceDto::getId)
+        .containsExactlyElementsOf(
+            requestedIds.stream().filter(id -> !id.equals(missingId)).toList());
+    assertThat(result.getItems())
+        .allSatisfy(resource -> assertThat(resource.getCharacteristics()).hasSize(2));
+    assertThat(result.getMissingIds()).containsExactly(missingId);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("getCharacteristicsByResourceIds_withManyIds_usesFixedNumberOfStatements")
+  void getCharacteristicsByResourceIds_withManyIds_usesFixedNumberOfStatements() {
+    // Given
+    var resourceIds =
+        saveResourcesWithCharacteristics(LISTED_RESOURCES).stream().map(Resource::getId).toList();
+    var missingId = UUID.randomUUID();
+    var requestedIds = new ArrayList<>(resourceIds);
+    requestedIds.add(missingId);
+    var statistics = clearedStatistics();
+
+    // When
+    var result = characteristicService.getCharacteristicsByResourceIds(requestedIds);
+
+    // Then
+    assertThat(result.getItems())
+        .hasSize(2 * LISTED_RESOURCES)
+        .extracting(CharacteristicDto::getResourceId)
+        .containsExactlyElementsOf(
+            resourceIds.stream().flatMap(id -> Stream.of(id, id)).toList());
+    assertThat(result.getMissingIds()).containsExactly(missingId);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  // Export jobs run on their own threads and transactions, so the query their chunks are cut
+  // from is driven directly in the test transaction
+  @Test
+  @DisplayName("scrollRows_withManyResources_usesSingleStatement")
+  void scrollRows_withManyResources_usesSingleStatement() {
+    // Given
+    saveResourcesWithCharacteristics(LISTED_RESOURCES);
+    var statistics = clearedStatistics();
+    var rows = new AtomicLong();
+
+    // When
+    resourceReadRepository.scrollRows(null, EXPORT_FETCH_SIZE, row -> rows.incrementAndGet());
+
+    // Then
+    assertThat(rows).hasValue(2L * LISTED_RESOURCES);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  // Inserts a million rows and forces full GCs, so it only runs in the performanceTest task
+  @Test
+  @Tag("performance")
+  @DisplayName("streamAllResources_withMillionResources_keepsHeapFlat")
+  void streamAllResources_withMillionResources_keepsHeapFlat() {
+    // Given
+    insertResources(STREAMED_RESOURCES);
+    var baseline = usedHeapAfterGc();
+    var peak = new AtomicLong(baseline);
+    var streamed = new AtomicLong();
+
+    // When
+    resourceService.streamAllResources(
+        resource -> {
+          if (streamed.incrementAndGet() % HEAP_SAMPLE_INTERVAL == 0) {
+            peak.accumulateAndGet(usedHeapAfterGc(), Math::max);
+          }
+        });
+
+    // Then
+    assertThat(streamed).hasValue(STREAMED_RESOURCES);
+    assertThat(peak.get() - baseline).isLessThan(MAX_HEAP_GROWTH_BYTES);
+  }
+
+  private List<Resource> saveResourcesWithCharacteristics(int count) {
+    var resources = new ArrayList<Resource>();
+    for (var i = 0; i < count; i++) {
+      var resource = constructResource(locationRepository.save(constructLocation()));
+      resource.setCharacteristics(
+          List.of(constructCharacteristic(resource), constructCharacteristic(resource)));
+      resources.add(resourceRepository.save(resource));
+    }
+    return resources;
+  }
+
+  private UUID saveResourceWithCharacteristics(int characteristicCount) {
+    var resource = constructResource(constructLocation());
+    var characteristics = new ArrayList<Characteristic>();
+    for (var i = 0; i < characteristicCount; i++) {
+      characteristics.add(constructCharacteristic(resource));
+    }
+    resource.setCharacteristics(characteristics);
+    return resourceRepository.save(resource).getId();
+  }
+
+  // Writes pending inserts and empties the persistence context so reads hit the database
+  private Statistics clearedStatistics() {
+    entityManager.flush();
+    entityManager.clear();
+    return resetStatistics();
+  }
+
+  private Statistics resetStatistics() {
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+
+  // The entity path that the projection replaced, kept here as the comparison baseline
+  private List<ResourceDto> readThroughEntities() {
+    var resources =
+        entityManager.createQuery(ENTITY_QUERY, Resource.class).getResultList().stream()
+            .map(resourceMapper::toDto)
+            .toList();
+    entityManager.clear();
+    return resources;
+  }
+
+  private List<ResourceDto> readThroughProjection() {
+    return resourceService
+        .getAllResources(new ResourceFilterDto(), null, ALLOCATION_RESOURCES)
+        .getItems();
+  }
+
+  private static long allocatedBytes(Runnable read) {
+    var threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var before = threads.getCurrentThreadAllocatedBytes();
+    for (var i = 0; i < ALLOCATION_MEASURED_ROUNDS; i++) {
+      read.run();
+    }
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  private void insertResources(int count) {
+    jdbcTemplate.update(
+        """
+        INSERT INTO location (id, version, updated_at, street_address, city, postal_code,
+                              country_code)
+        SELECT md5('location-' || g)::uuid, 0, now(), 'Main St ' || g, 'Tallinn', '10111', 'EE'
+        FROM generate_series(1, ?) g
+        """,
+        count);
+    jdbcTemplate.update(
+        """
+        INSERT INTO resource (id, version, updated_at, type, country_code, location_id)
+        SELECT md5('resource-' || g)::uuid, 0, now(), 'METERING_POINT', 'EE',
+               md5('location-' || g)::uuid
+        FROM generate_series(1, ?) g
+        """,
+        count);
+    jdbcTemplate.update(
+        """
+        INSERT INTO characteristic (id, version, updated_at, code, type, value, resource_id)
+        SELECT gen_random_uuid(), 0, now(), 'C01', 'CONSUMPTION_TYPE', 'Electricity',
+               md5('resource-' || g)::uuid
+        FROM generate_series(1, ?) g
+        """,
+        count);
+  }
+
+  private static long usedHeapAfterGc() {
+    System.gc();
+    var runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
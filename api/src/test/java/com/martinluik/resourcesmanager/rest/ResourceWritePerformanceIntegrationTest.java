@@ -0,0 +1,203 @@
+package com.martinluik.resourcesmanager.rest;
+
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructCharacteristic;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructCharacteristicDto;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocation;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructLocationDto1;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResource;
+import static com.martinluik.resourcesmanager.rest.TestFixtures.constructResourceDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.service.ResourceService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ResourceWritePerformanceIntegrationTest extends BaseIntegrationTest {
+
+  private static final int CREATED_RESOURCES = 25;
+
+  @Autowired private ResourceService resourceService;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("createResources_withChunk_batchesInsertsPerTable")
+  void createResources_withChunk_batchesInsertsPerTable() {
+    // Given
+    var dtos =
+        Stream.generate(
+                () ->
+                    constructResourceDto(
+                        constructLocationDto1(),
+                        List.of(constructCharacteristicDto(), constructCharacteristicDto())))
+            .limit(CREATED_RESOURCES)
+            .toList();
+    var statistics = clearedStatistics();
+
+    // When
+    var created = resourceService.createResources(dtos);
+
+    // Then
+    assertThat(created)
+        .hasSize(CREATED_RESOURCES)
+        .allSatisfy(dto -> assertThat(dto.getId()).isNotNull());
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(4L * CREATED_RESOURCES);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("updateResource_withOneChangedCharacteristic_updatesOnlyThatRow")
+  void updateResource_withOneChangedCharacteristic_updatesOnlyThatRow() {
+    // Given
+    var resource = resourceService.getResource(saveResourceWithCharacteristics(20));
+    var characteristicIds =
+        resource.getCharacteristics().stream().map(CharacteristicDto::getId).toList();
+    resource.getCharacteristics().get(3).setValue("Changed");
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResource(resource, null);
+
+    // Then
+    assertThat(updated.getCharacteristics())
+        .extracting(CharacteristicDto::getId)
+        .containsExactlyInAnyOrderElementsOf(characteristicIds);
+    assertThat(statistics.getEntityInsertCount()).isZero();
+    assertThat(statistics.getEntityDeleteCount()).isZero();
+    // The changed characteristic and the version bump of the resource
+    assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("updateResource_withCharacteristicsWithoutIds_matchesByCodeAndType")
+  void updateResource_withCharacteristicsWithoutIds_matchesByCodeAndType() {
+    // Given
+    var resource = resourceService.getResource(saveResourceWithCharacteristics(2));
+    var characteristicIds =
+        resource.getCharacteristics().stream().map(CharacteristicDto::getId).toList();
+    var added = constructCharacteristicDto();
+    added.setCode("NEW");
+    resource.getCharacteristics().forEach(characteristic -> characteristic.setId(null));
+    resource.getCharacteristics().add(added);
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResource(resource, null);
+
+    // Then
+    assertThat(updated.getCharacteristics())
+        .extracting(CharacteristicDto::getId)
+        .hasSize(3)
+        .containsAll(characteristicIds);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    assertThat(statistics.getEntityDeleteCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("updateResourceLocation_withChangedPostalCode_writesLocationAndVersionOnly")
+  void updateResourceLocation_withChangedPostalCode_writesLocationAndVersionOnly() {
+    // Given
+    var resourceId = saveResourceWithCharacteristics(1);
+    var location = resourceService.getResource(resourceId).getLocation();
+    location.setPostalCode("99999");
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResourceLocation(resourceId, location);
+
+    // Then
+    assertThat(updated.getLocation().getPostalCode()).isEqualTo("99999");
+    assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+    // Resource, location and characteristics reads, then the two updates
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("updateResourceLocation_withSnapshotDue_recordsSnapshotInSameUpdate")
+  void updateResourceLocation_withSnapshotDue_recordsSnapshotInSameUpdate() {
+    // Given
+    var resourceId = saveResourceWithCharacteristics(1);
+    entityManager.flush();
+    jdbcTemplate.update("UPDATE resource SET version = 9 WHERE id = ?", resourceId);
+    var location = resourceService.getResource(resourceId).getLocation();
+    location.setPostalCode("99999");
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResourceLocation(resourceId, location);
+    entityManager.flush();
+
+    // Then
+    assertThat(updated.getVersion()).isEqualTo(10L);
+    assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT snapshot_version FROM resource WHERE id = ?", Long.class, resourceId))
+        .isEqualTo(10L);
+  }
+
+  @Test
+  @DisplayName("updateResourceLocation_withUnchangedLocation_writesNothing")
+  void updateResourceLocation_withUnchangedLocation_writesNothing() {
+    // Given
+    var resource = resourceService.getResource(saveResourceWithCharacteristics(1));
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResourceLocation(resource.getId(), resource.getLocation());
+
+    // Then
+    assertThat(updated.getVersion()).isEqualTo(resource.getVersion());
+    assertThat(statistics.getEntityUpdateCount()).isZero();
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("updateResource_withUnchangedDocument_writesNothing")
+  void updateResource_withUnchangedDocument_writesNothing() {
+    // Given
+    var resource = resourceService.getResource(saveResourceWithCharacteristics(2));
+    var statistics = clearedStatistics();
+
+    // When
+    var updated = resourceService.updateResource(resource, null);
+
+    // Then
+    assertThat(updated.getVersion()).isEqualTo(resource.getVersion());
+    assertThat(statistics.getEntityUpdateCount()).isZero();
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    assertThat(outboxRepository.count()).isZero();
+  }
+
+  private UUID saveResourceWithCharacteristics(int characteristicCount) {
+    var resource = constructResource(constructLocation());
+    var characteristics = new ArrayList<Characteristic>();
+    for (var i = 0; i < characteristicCount; i++) {
+      characteristics.add(constructCharacteristic(resource));
+    }
+    resource.setCharacteristics(characteristics);
+    return resourceRepository.save(resource).getId();
+  }
+
+  // Writes pending inserts and empties the persistence context so reads hit the database
+  private Statistics clearedStatistics() {
+    entityManager.flush();
+    entityManager.clear();
+    var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    return statistics;
+  }
+}
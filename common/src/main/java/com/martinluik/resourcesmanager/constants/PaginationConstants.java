@@ -0,0 +1,18 @@
+package com.martinluik.resourcesmanager.constants;
+
+public final class PaginationConstants {
+
+  public static final String DEFAULT_PAGE_SIZE = "100";
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  public static final String DEFAULT_SEARCH_LIMIT = "20";
+  public static final int MAX_SEARCH_LIMIT = 100;
+
+  public static final int MAX_BATCH_GET_SIZE = 500;
+
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private PaginationConstants() {
+    // Utility class - prevent instantiation
+  }
+}
@@ -29,6 +29,10 @@ public final class ValidationMessages {
   public static final String CHARACTERISTIC_VALUE_REQUIRED = "characteristic_value_required";
   public static final String CHARACTERISTIC_VALUE_SIZE_RANGE = "characteristic_value_size_range";
 
+  // Batch request validation messages
+  public static final String IDS_REQUIRED = "ids_required";
+  public static final String IDS_MAX_SIZE = "ids_max_size";
+
   private ValidationMessages() {
     // Utility class - prevent instantiation
   }
@@ -0,0 +1,25 @@
+package com.martinluik.resourcesmanager.dto;
+
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_BATCH_GET_SIZE;
+
+import com.martinluik.resourcesmanager.constants.ValidationMessages;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetRequestDto {
+
+  @NotEmpty(message = ValidationMessages.IDS_REQUIRED)
+  @Size(max = MAX_BATCH_GET_SIZE, message = ValidationMessages.IDS_MAX_SIZE)
+  private List<@NotNull(message = ValidationMessages.IDS_REQUIRED) UUID> ids;
+}
@@ -0,0 +1,21 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGetResultDto<T> {
+
+  /** Found items in the order their IDs were requested. */
+  private List<T> items;
+
+  /** Requested IDs that do not exist, in request order. */
+  private List<UUID> missingIds;
+}
@@ -0,0 +1,25 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkExportChunkDto {
+
+  private UUID exportId;
+
+  /** Zero-based position of the chunk within its export. */
+  private int sequence;
+
+  /** Set on the final chunk only, which may hold no resources when the export is empty. */
+  private boolean last;
+
+  private List<ResourceDto> resources;
+}
@@ -0,0 +1,33 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkItemResultDto {
+
+  /** Position of the item in the request array. */
+  private int index;
+
+  /** ID of the created resource, absent when the item was rejected. */
+  @Nullable private UUID id;
+
+  /** Why the item was rejected, empty when it was created. */
+  private List<String> errors;
+
+  public static BulkItemResultDto created(int index, UUID id) {
+    return new BulkItemResultDto(index, id, List.of());
+  }
+
+  public static BulkItemResultDto rejected(int index, List<String> errors) {
+    return new BulkItemResultDto(index, null, errors);
+  }
+}
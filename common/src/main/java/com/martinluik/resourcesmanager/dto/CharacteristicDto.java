@@ -22,6 +22,7 @@ public class CharacteristicDto {
 
   @Nullable private UUID id;
   @Nullable private UUID resourceId;
+  @Nullable private Long version;
 
   @NotNull(message = ValidationMessages.CHARACTERISTIC_CODE_REQUIRED)
   @Size(max = 5, message = ValidationMessages.CHARACTERISTIC_CODE_MAX_SIZE)
@@ -0,0 +1,40 @@
+package com.martinluik.resourcesmanager.dto;
+
+import com.martinluik.resourcesmanager.pagination.CursorCodec;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+  private List<T> items;
+
+  @Nullable private String nextCursor;
+
+  /**
+   * Builds a page from a keyset slice fetched with {@code pageSize + 1} rows. The extra row only
+   * signals that another page exists and is never returned.
+   */
+  public static <T> CursorPageDto<T> fromSlice(
+      List<T> rows, int pageSize, Function<T, UUID> idExtractor) {
+    if (rows.size() <= pageSize) {
+      return new CursorPageDto<>(rows, null);
+    }
+
+    var items = rows.subList(0, pageSize);
+    return new CursorPageDto<>(items, CursorCodec.encode(idExtractor.apply(items.getLast())));
+  }
+
+  public <R> CursorPageDto<R> map(Function<T, R> mapper) {
+    return new CursorPageDto<>(items.stream().map(mapper).toList(), nextCursor);
+  }
+}
@@ -0,0 +1,42 @@
+package com.martinluik.resourcesmanager.dto;
+
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExportJobDto {
+
+  /** Also the export id carried by every chunk of the export. */
+  private UUID id;
+
+  private ExportJobStatus status;
+
+  /** Resources in the table when the job was created. */
+  private long totalResources;
+
+  private long resourcesExported;
+
+  private int chunksSent;
+
+  private Instant createdAt;
+
+  @Nullable private Instant startedAt;
+
+  @Nullable private Instant finishedAt;
+
+  @Nullable private Double resourcesPerSecond;
+
+  /** Estimated seconds until a running job completes. */
+  @Nullable private Long etaSeconds;
+
+  @Nullable private String error;
+}
@@ -0,0 +1,25 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReportDto {
+
+  private int rowsRead;
+
+  private int rowsImported;
+
+  private int rowsRejected;
+
+  /** The first rejected rows, indexed by their zero-based position in the input. */
+  private List<BulkItemResultDto> rejects;
+
+  private long durationMillis;
+}
@@ -0,0 +1,22 @@
+package com.martinluik.resourcesmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LocationSearchResultDto {
+
+  private LocationDto location;
+
+  /** Trigram word similarity of the query to the location, between 0 and 1. */
+  private double similarity;
+
+  /** The owning resource, only present when requested and the location has one. */
+  @Nullable private ResourceDto resource;
+}
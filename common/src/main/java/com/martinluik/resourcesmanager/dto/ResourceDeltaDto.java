@@ -0,0 +1,52 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.jetbrains.annotations.Nullable;
+
+import com.martinluik.resourcesmanager.enums.ResourceType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The changes one update made to a resource, applicable only to the resource at {@code
+ * baseVersion}. Unchanged scalar fields are null, and so is the location unless one of its fields
+ * changed, in which case it holds the location ID and the changed fields only.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResourceDeltaDto {
+
+  private UUID id;
+
+  private long baseVersion;
+
+  private long version;
+
+  @Nullable private ResourceType type;
+
+  @Nullable private String countryCode;
+
+  @Nullable private LocationDto location;
+
+  @Nullable private List<CharacteristicDto> addedCharacteristics;
+
+  @Nullable private List<CharacteristicDto> updatedCharacteristics;
+
+  @Nullable private List<UUID> removedCharacteristicIds;
+
+  public boolean hasChanges() {
+    return type != null
+        || countryCode != null
+        || location != null
+        || addedCharacteristics != null
+        || updatedCharacteristics != null
+        || removedCharacteristicIds != null;
+  }
+}
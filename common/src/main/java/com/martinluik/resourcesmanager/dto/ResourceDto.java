@@ -25,6 +25,8 @@ public class ResourceDto {
 
   @Nullable private UUID id;
 
+  @Nullable private Long version;
+
   @NotNull(message = ValidationMessages.RESOURCE_TYPE_REQUIRED)
   private ResourceType type;
 
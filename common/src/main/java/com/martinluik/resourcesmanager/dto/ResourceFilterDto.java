@@ -0,0 +1,33 @@
+package com.martinluik.resourcesmanager.dto;
+
+import com.martinluik.resourcesmanager.constants.ValidationMessages;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+
+/** Optional resource list filters. Filters that are set must all match. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResourceFilterDto {
+
+  @Nullable private ResourceType type;
+
+  @Nullable
+  @Pattern(regexp = "^[A-Z]{2}$", message = ValidationMessages.COUNTRY_CODE_ISO_PATTERN)
+  private String countryCode;
+
+  @Nullable private CharacteristicType characteristicType;
+
+  @Nullable private String characteristicValue;
+
+  public boolean hasCharacteristicFilter() {
+    return characteristicType != null || characteristicValue != null;
+  }
+}
@@ -0,0 +1,20 @@
+package com.martinluik.resourcesmanager.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Version and last update time of an entity, enough to answer conditional requests. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersionDto {
+
+  private Long version;
+
+  private Instant updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.martinluik.resourcesmanager.enums;
+
+public enum ExportJobStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED,
+  CANCELLED
+}
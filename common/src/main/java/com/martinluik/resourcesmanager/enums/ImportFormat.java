@@ -0,0 +1,6 @@
+package com.martinluik.resourcesmanager.enums;
+
+public enum ImportFormat {
+  NDJSON,
+  CSV
+}
@@ -0,0 +1,11 @@
+package com.martinluik.resourcesmanager.exception;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+public class ExportJobNotFoundException extends NoSuchElementException {
+
+  public ExportJobNotFoundException(UUID id) {
+    super("Export job not found with id: " + id);
+  }
+}
@@ -0,0 +1,44 @@
+package com.martinluik.resourcesmanager.pagination;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+
+/** Encodes the last seen UUID of a keyset page into an opaque, URL-safe cursor. */
+public final class CursorCodec {
+
+  private static final int UUID_BYTES = 16;
+
+  private CursorCodec() {
+    // Utility class - prevent instantiation
+  }
+
+  public static String encode(UUID lastSeenId) {
+    var buffer = ByteBuffer.allocate(UUID_BYTES);
+    buffer.putLong(lastSeenId.getMostSignificantBits());
+    buffer.putLong(lastSeenId.getLeastSignificantBits());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+  }
+
+  @Nullable
+  public static UUID decode(@Nullable String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+
+    byte[] bytes;
+    try {
+      bytes = Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+
+    if (bytes.length != UUID_BYTES) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    var buffer = ByteBuffer.wrap(bytes);
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+}
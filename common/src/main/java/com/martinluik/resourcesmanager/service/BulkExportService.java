@@ -0,0 +1,15 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.dto.ExportJobDto;
+import java.util.UUID;
+
+public interface BulkExportService {
+
+  /** Queues an export of every resource to the bulk export topic and returns at once. */
+  ExportJobDto startExport();
+
+  ExportJobDto getExportJob(UUID id);
+
+  /** Stops a queued or running export after its current chunk, finished jobs are left as is. */
+  ExportJobDto cancelExport(UUID id);
+}
@@ -1,20 +1,32 @@
 package com.martinluik.resourcesmanager.service;
 
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
 import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.Nullable;
 
 public interface CharacteristicService {
 
-  List<CharacteristicDto> getAllCharacteristics();
+  CursorPageDto<CharacteristicDto> getAllCharacteristics(@Nullable String cursor, int limit);
 
   CharacteristicDto getCharacteristic(UUID id);
 
+  VersionDto getCharacteristicVersion(UUID id);
+
   CharacteristicDto createCharacteristic(CharacteristicDto dto, UUID resourceId);
 
-  CharacteristicDto updateCharacteristic(CharacteristicDto dto);
+  CharacteristicDto updateCharacteristic(CharacteristicDto dto, @Nullable Long expectedVersion);
+
+  CharacteristicDto patchCharacteristic(
+      UUID id, UnaryOperator<CharacteristicDto> patch, @Nullable Long expectedVersion);
 
   void deleteCharacteristic(UUID id);
 
   List<CharacteristicDto> getCharacteristicsByResourceId(UUID resourceId);
+
+  BatchGetResultDto<CharacteristicDto> getCharacteristicsByResourceIds(List<UUID> resourceIds);
 }
@@ -1,11 +1,21 @@
 package com.martinluik.resourcesmanager.service;
 
+import com.martinluik.resourcesmanager.dto.BulkExportChunkDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface KafkaService {
 
   void sendResourceUpdate(ResourceDto resourceDto);
 
-  void sendBulkExport(List<ResourceDto> resources);
+  void sendResourceUpdates(List<ResourceDto> resourceDtos);
+
+  void sendResourceDelta(ResourceDeltaDto resourceDelta);
+
+  void sendResourceDeletion(UUID resourceId);
+
+  CompletableFuture<Void> sendBulkExportChunk(BulkExportChunkDto chunk);
 }
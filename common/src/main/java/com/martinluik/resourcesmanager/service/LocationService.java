@@ -1,18 +1,30 @@
 package com.martinluik.resourcesmanager.service;
 
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.LocationSearchResultDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.Nullable;
 
 public interface LocationService {
 
-  List<LocationDto> getAllLocations();
+  CursorPageDto<LocationDto> getAllLocations(@Nullable String cursor, int limit);
 
   LocationDto getLocation(UUID id);
 
+  VersionDto getLocationVersion(UUID id);
+
+  List<LocationSearchResultDto> searchLocations(String query, int limit, boolean includeResource);
+
   LocationDto createLocation(LocationDto dto);
 
   LocationDto updateLocation(LocationDto dto);
 
+  LocationDto patchLocation(
+      UUID id, UnaryOperator<LocationDto> patch, @Nullable Long expectedVersion);
+
   void deleteLocation(UUID id);
 }
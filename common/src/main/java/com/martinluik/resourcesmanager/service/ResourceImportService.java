@@ -0,0 +1,12 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.dto.ImportReportDto;
+import com.martinluik.resourcesmanager.enums.ImportFormat;
+import java.io.InputStream;
+
+public interface ResourceImportService {
+
+  ImportReportDto importResources(InputStream input, ImportFormat format);
+
+  ImportReportDto importResourcesFromFile(String path, ImportFormat format);
+}
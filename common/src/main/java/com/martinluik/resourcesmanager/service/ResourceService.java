@@ -1,23 +1,52 @@
 package com.martinluik.resourcesmanager.service;
 
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
 import com.martinluik.resourcesmanager.dto.LocationDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.Nullable;
 
 public interface ResourceService {
 
-  List<ResourceDto> getAllResources();
+  CursorPageDto<ResourceDto> getAllResources(
+      ResourceFilterDto filter, @Nullable String cursor, int limit);
+
+  void streamAllResources(Consumer<ResourceDto> consumer);
 
   ResourceDto getResource(UUID id);
 
+  /**
+   * Writes the JSON of a resource to the stream, from the response cache when the given version is
+   * cached.
+   */
+  void writeResourceJson(UUID id, long version, OutputStream outputStream) throws IOException;
+
+  VersionDto getResourceVersion(UUID id);
+
+  BatchGetResultDto<ResourceDto> getResources(List<UUID> ids);
+
   ResourceDto createResource(ResourceDto dto);
 
-  ResourceDto updateResource(ResourceDto dto);
+  List<ResourceDto> createResources(List<ResourceDto> dtos);
+
+  ResourceDto updateResource(ResourceDto dto, @Nullable Long expectedVersion);
+
+  /**
+   * Updates a resource from the patch applied to its current state, read in the same transaction
+   * as the write.
+   */
+  ResourceDto patchResource(
+      UUID id, UnaryOperator<ResourceDto> patch, @Nullable Long expectedVersion);
 
   void deleteResource(UUID id);
 
   ResourceDto updateResourceLocation(UUID resourceId, LocationDto locationDto);
-
-  void exportAllResources();
 }
@@ -0,0 +1,278 @@
+package com.martinluik.resourcesmanager.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * LRU cache of serialized resource JSON keyed by resource id and version. Payloads live in
+ * fixed-size blocks carved out of direct {@link ByteBuffer} slabs, so a large cache stays out of
+ * the garbage-collected heap. Slabs are allocated lazily up to the memory budget; only the small
+ * id index is kept on the heap.
+ *
+ * <p>The cache also remembers the highest version seen per resource in a bounded watermark table.
+ * Puts below the watermark are rejected, so a reader that loaded a resource before a concurrent
+ * write committed cannot re-insert the stale copy.
+ *
+ * <p>{@link #writeTo} copies an entry of the requested version from its slabs straight to the
+ * response stream. Blocks of an entry being written are only reused once the write completes.
+ */
+public class ResourceResponseCache {
+
+  private static final int SLAB_SIZE = 4 * 1024 * 1024;
+
+  private final int blockSize;
+  private final int blocksPerSlab;
+  private final int maxSlabs;
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+  private final int[] freeBlocks;
+  private int freeCount;
+  private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<UUID, Long> watermarks;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public ResourceResponseCache(long memoryBudget, int blockSize, int watermarkCapacity) {
+    Assert.isTrue(blockSize > 0 && blockSize <= SLAB_SIZE, "Block size must fit in a slab");
+    Assert.isTrue(memoryBudget >= SLAB_SIZE, "Memory budget must hold at least one slab");
+    Assert.isTrue(watermarkCapacity > 0, "Watermark capacity must be positive");
+
+    this.blockSize = blockSize;
+    this.blocksPerSlab = SLAB_SIZE / blockSize;
+    this.maxSlabs = (int) Math.min(memoryBudget / SLAB_SIZE, Integer.MAX_VALUE / blocksPerSlab);
+    this.freeBlocks = new int[maxSlabs * blocksPerSlab];
+    this.watermarks =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+            return size() > watermarkCapacity;
+          }
+        };
+  }
+
+  /** Returns a copy of the cached JSON, or null when the resource is not cached. */
+  @Nullable
+  public byte[] get(UUID id) {
+    lock.lock();
+    try {
+      var entry = entries.get(id);
+      if (entry == null) {
+        return null;
+      }
+
+      var json = new byte[entry.length()];
+      for (var i = 0; i < entry.blocks().length; i++) {
+        var position = i * blockSize;
+        var length = Math.min(blockSize, json.length - position);
+        slab(entry.blocks()[i]).get(offset(entry.blocks()[i]), json, position, length);
+      }
+      return json;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes the cached JSON of the given version to the stream, or returns false when that version
+   * is not cached.
+   */
+  public boolean writeTo(UUID id, long version, OutputStream outputStream) throws IOException {
+    Entry entry;
+    var blocks = new ArrayList<ByteBuffer>();
+    lock.lock();
+    try {
+      entry = entries.get(id);
+      if (entry == null || entry.version() != version) {
+        return false;
+      }
+
+      entry.readers++;
+      for (var i = 0; i < entry.blocks().length; i++) {
+        var length = Math.min(blockSize, entry.length() - i * blockSize);
+        blocks.add(slab(entry.blocks()[i]).slice(offset(entry.blocks()[i]), length));
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      var channel = Channels.newChannel(outputStream);
+      for (var block : blocks) {
+        while (block.hasRemaining()) {
+          channel.write(block);
+        }
+      }
+      return true;
+    } finally {
+      lock.lock();
+      try {
+        entry.readers--;
+        if (entry.readers == 0 && entry.released) {
+          free(entry);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Caches the JSON of the given resource version, evicting least recently used entries to make
+   * room. An entry for a newer version is never replaced by an older one, and versions below the
+   * watermark recorded by {@link #invalidate} are ignored.
+   */
+  public void put(UUID id, long version, byte[] json) {
+    var required = Math.max(1, (json.length + blockSize - 1) / blockSize);
+    if (required > freeBlocks.length) {
+      return;
+    }
+
+    lock.lock();
+    try {
+      var watermark = watermarks.get(id);
+      if (watermark != null && watermark > version) {
+        return;
+      }
+      var existing = entries.get(id);
+      if (existing != null && existing.version() > version) {
+        return;
+      }
+      if (existing != null) {
+        release(entries.remove(id));
+      }
+      if (!reserve(required)) {
+        return;
+      }
+
+      var blocks = new int[required];
+      for (var i = 0; i < required; i++) {
+        blocks[i] = freeBlocks[--freeCount];
+        var position = i * blockSize;
+        var length = Math.min(blockSize, json.length - position);
+        slab(blocks[i]).put(offset(blocks[i]), json, position, length);
+      }
+      entries.put(id, new Entry(version, json.length, blocks));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void evict(UUID id) {
+    lock.lock();
+    try {
+      var entry = entries.remove(id);
+      if (entry != null) {
+        release(entry);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records that the given version of a resource exists elsewhere. Cached entries of older versions
+   * are dropped and later puts of older versions are ignored. Invalidating with {@link
+   * Long#MAX_VALUE} marks the resource as deleted.
+   */
+  public void invalidate(UUID id, long version) {
+    lock.lock();
+    try {
+      watermarks.merge(id, version, Math::max);
+      var entry = entries.get(id);
+      if (entry != null && entry.version() < version) {
+        release(entries.remove(id));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Entries still being written free no blocks, so the put gives up when only those are left
+  private boolean reserve(int required) {
+    while (freeCount < required && slabs.size() < maxSlabs) {
+      allocateSlab();
+    }
+    var leastRecentlyUsed = entries.values().iterator();
+    while (freeCount < required && leastRecentlyUsed.hasNext()) {
+      var entry = leastRecentlyUsed.next();
+      leastRecentlyUsed.remove();
+      release(entry);
+    }
+    return freeCount >= required;
+  }
+
+  private void allocateSlab() {
+    var firstBlock = slabs.size() * blocksPerSlab;
+    slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+    for (var block = firstBlock + blocksPerSlab - 1; block >= firstBlock; block--) {
+      freeBlocks[freeCount++] = block;
+    }
+  }
+
+  private void release(Entry entry) {
+    if (entry.readers > 0) {
+      entry.released = true;
+    } else {
+      free(entry);
+    }
+  }
+
+  private void free(Entry entry) {
+    for (var block : entry.blocks()) {
+      freeBlocks[freeCount++] = block;
+    }
+  }
+
+  private ByteBuffer slab(int block) {
+    return slabs.get(block / blocksPerSlab);
+  }
+
+  private int offset(int block) {
+    return (block % blocksPerSlab) * blockSize;
+  }
+
+  private static final class Entry {
+
+    private final long version;
+    private final int length;
+    private final int[] blocks;
+    // Guarded by the cache lock
+    private int readers;
+    private boolean released;
+
+    private Entry(long version, int length, int[] blocks) {
+      this.version = version;
+      this.length = length;
+      this.blocks = blocks;
+    }
+
+    private long version() {
+      return version;
+    }
+
+    private int length() {
+      return length;
+    }
+
+    private int[] blocks() {
+      return blocks;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.martinluik.resourcesmanager.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Resources per bulk export message, which must keep a message below the producer's
+ * max.request.size, and rows fetched per cursor round trip while scrolling the table. Up to
+ * {@code parallelism} export jobs run at once with {@code queueCapacity} more waiting, the rest
+ * stay queued in the database. Every {@code resumeInterval} queued jobs and running jobs without
+ * progress for {@code staleAfter} are picked up again.
+ */
+@ConfigurationProperties("resources-manager.export")
+public record BulkExportProperties(
+    @DefaultValue("500") int chunkSize,
+    @DefaultValue("1000") int fetchSize,
+    @DefaultValue("2") int parallelism,
+    @DefaultValue("16") int queueCapacity,
+    @DefaultValue("1m") Duration resumeInterval,
+    @DefaultValue("5m") Duration staleAfter) {}
@@ -3,25 +3,47 @@ package com.martinluik.resourcesmanager.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 
 @Configuration
+@EnableConfigurationProperties(KafkaPayloadProperties.class)
 public class KafkaConfig {
 
   public static final String RESOURCES_UPDATES_TOPIC = "resource-updates";
   public static final String BULK_EXPORT_TOPIC = "bulk-export";
+  public static final String BATCH_LISTENER_CONTAINER_FACTORY = "batchListenerContainerFactory";
+
+  // Deletions stay on the compacted resource-updates topic this long, see ResourceProjection
+  public static final Duration RESOURCE_UPDATES_TOMBSTONE_RETENTION = Duration.ofDays(7);
+
+  // Both topics have this many partitions, which is as many consumer threads as can be busy
+  private static final int TOPIC_PARTITIONS = 3;
+
+  // How soon a listener without records hears that, see ResourceProjectionListener
+  private static final long IDLE_EVENT_INTERVAL_MS = 10000;
 
   @Value("${spring.kafka.bootstrap-servers}")
   private String bootstrapServers;
@@ -29,22 +51,24 @@ public class KafkaConfig {
   @Value("${spring.kafka.admin.auto-create:true}")
   private boolean autoCreateTopics;
 
+  // Compacted, so the latest event of every resource stays to rebuild ResourceProjection from
   @Bean
   public NewTopic resourceUpdatesTopic() {
     return TopicBuilder.name(RESOURCES_UPDATES_TOPIC)
-        .partitions(3)
+        .partitions(TOPIC_PARTITIONS)
         .replicas(1)
         .configs(
             Map.of(
-                "retention.ms", "604800000", // 7 days
-                "cleanup.policy", "delete"))
+                "delete.retention.ms",
+                String.valueOf(RESOURCE_UPDATES_TOMBSTONE_RETENTION.toMillis()),
+                "cleanup.policy", "compact"))
         .build();
   }
 
   @Bean
   public NewTopic bulkExportTopic() {
     return TopicBuilder.name(BULK_EXPORT_TOPIC)
-        .partitions(3)
+        .partitions(TOPIC_PARTITIONS)
         .replicas(1)
         .configs(
             Map.of(
@@ -61,12 +85,13 @@ public class KafkaConfig {
     return mapper;
   }
 
+  // Values are encoded by PayloadCodec, which names their format in a content-type header
   @Bean
-  public ProducerFactory<String, String> producerFactory() {
+  public ProducerFactory<String, byte[]> producerFactory() {
     var configProps = new HashMap<String, Object>();
     configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
     configProps.put(ProducerConfig.ACKS_CONFIG, "all");
     configProps.put(ProducerConfig.RETRIES_CONFIG, 5);
     configProps.put(ProducerConfig.LINGER_MS_CONFIG, 1);
@@ -91,10 +116,33 @@ public class KafkaConfig {
   }
 
   @Bean
-  public KafkaTemplate<String, String> kafkaTemplate() {
+  public KafkaTemplate<String, byte[]> kafkaTemplate() {
     return new KafkaTemplate<>(producerFactory());
   }
 
+  // Listeners decode the raw bytes themselves, see PayloadCodec. Offsets are committed by the
+  // listener once it has applied the whole batch
+  @Bean(BATCH_LISTENER_CONTAINER_FACTORY)
+  public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchListenerContainerFactory(
+      ConsumerFactory<String, byte[]> consumerFactory) {
+    var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+    factory.setConsumerFactory(
+        new DefaultKafkaConsumerFactory<>(
+            consumerFactory.getConfigurationProperties(),
+            new StringDeserializer(),
+            new ByteArrayDeserializer()));
+    factory.setBatchListener(true);
+    factory.setConcurrency(TOPIC_PARTITIONS);
+
+    var consumerProperties = new Properties();
+    consumerProperties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+    factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    factory.getContainerProperties().setIdleEventInterval(IDLE_EVENT_INTERVAL_MS);
+
+    return factory;
+  }
+
   @Bean
   public KafkaAdmin kafkaAdmin() {
     var configs = new HashMap<String, Object>();
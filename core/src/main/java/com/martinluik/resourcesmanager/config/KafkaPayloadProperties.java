@@ -0,0 +1,12 @@
+package com.martinluik.resourcesmanager.config;
+
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The format this node publishes Kafka record values in. Consumers read every format, so a new
+ * format should only be configured once all nodes run a version that understands it.
+ */
+@ConfigurationProperties("resources-manager.kafka")
+public record KafkaPayloadProperties(@DefaultValue("json") PayloadFormat payloadFormat) {}
@@ -0,0 +1,18 @@
+package com.martinluik.resourcesmanager.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How the outbox relay publishes to Kafka. Every key hashes to one of {@code parallelism}
+ * partitions and each partition is relayed by one worker at a time across all nodes, so all nodes
+ * must use the same value.
+ */
+@ConfigurationProperties("resources-manager.outbox")
+public record OutboxProperties(
+    @DefaultValue("true") boolean relayEnabled,
+    @DefaultValue("4") int parallelism,
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("100ms") Duration pollInterval,
+    @DefaultValue("30s") Duration sendTimeout) {}
@@ -0,0 +1,19 @@
+package com.martinluik.resourcesmanager.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How resource updates are published on resource-updates. An update is published as a delta
+ * unless it is the {@code snapshotEvery}th version since the resource's last full snapshot.
+ * Resources last published as a delta get a full snapshot once they have not been updated for
+ * {@code snapshotDelay}, so the compacted topic keeps a snapshot for every key.
+ */
+@ConfigurationProperties("resources-manager.resource-events")
+public record ResourceEventProperties(
+    @DefaultValue("10") int snapshotEvery,
+    @DefaultValue("true") boolean publisherEnabled,
+    @DefaultValue("1m") Duration snapshotDelay,
+    @DefaultValue("30s") Duration pollInterval,
+    @DefaultValue("500") int batchSize) {}
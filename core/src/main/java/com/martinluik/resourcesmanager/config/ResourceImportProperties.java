@@ -0,0 +1,20 @@
+package com.martinluik.resourcesmanager.config;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.nio.file.Path;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Directory that file imports may read from, file imports are rejected while it is not set, and
+ * how much an import reports about its progress and rejected rows.
+ */
+@Validated
+@ConfigurationProperties("resources-manager.import")
+public record ResourceImportProperties(
+    @Nullable Path directory,
+    @DefaultValue("1000") @PositiveOrZero int maxReportedRejects,
+    @DefaultValue("100000") @Positive int progressInterval) {}
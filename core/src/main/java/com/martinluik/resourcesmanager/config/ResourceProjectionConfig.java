@@ -0,0 +1,8 @@
+package com.martinluik.resourcesmanager.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResourceProjectionProperties.class)
+public class ResourceProjectionConfig {}
@@ -0,0 +1,22 @@
+package com.martinluik.resourcesmanager.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * The local read model of resources fed from resource-updates. It answers page requests only while
+ * every assigned partition is at most {@code maxLag} records behind and the consumer has heard from
+ * the broker within {@code maxStaleness}. Without a snapshot directory, or with {@code
+ * rebuildFromTopic}, it is rebuilt by reading the compacted topic from the beginning.
+ */
+@ConfigurationProperties("resources-manager.projection")
+public record ResourceProjectionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("false") boolean rebuildFromTopic,
+    @Nullable Path snapshotDirectory,
+    @DefaultValue("5m") Duration snapshotInterval,
+    @DefaultValue("100") long maxLag,
+    @DefaultValue("30s") Duration maxStaleness) {}
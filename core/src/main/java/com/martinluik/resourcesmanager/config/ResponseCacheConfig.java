@@ -0,0 +1,19 @@
+package com.martinluik.resourcesmanager.config;
+
+import com.martinluik.resourcesmanager.cache.ResourceResponseCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+  @Bean
+  public ResourceResponseCache resourceResponseCache(ResponseCacheProperties properties) {
+    return new ResourceResponseCache(
+        properties.memoryBudget().toBytes(),
+        (int) properties.blockSize().toBytes(),
+        properties.watermarkCapacity());
+  }
+}
@@ -0,0 +1,15 @@
+package com.martinluik.resourcesmanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Off-heap budget of the serialized single-resource response cache and the number of per-resource
+ * version watermarks it keeps on the heap.
+ */
+@ConfigurationProperties("resources-manager.response-cache")
+public record ResponseCacheProperties(
+    @DefaultValue("64MB") DataSize memoryBudget,
+    @DefaultValue("512B") DataSize blockSize,
+    @DefaultValue("100000") int watermarkCapacity) {}
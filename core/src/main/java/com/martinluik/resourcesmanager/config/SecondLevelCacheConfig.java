@@ -0,0 +1,64 @@
+package com.martinluik.resourcesmanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.martinluik.resourcesmanager.domain.CacheRegions;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+    var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    var cacheManager =
+        provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+    for (var regionName : CacheRegions.ALL) {
+      var region = properties.region(regionName);
+      var configuration = new CaffeineConfiguration<Object, Object>();
+      configuration.setMaximumSize(OptionalLong.of(region.maximumSize()));
+      configuration.setExpireAfterWrite(OptionalLong.of(region.expireAfterWrite().toNanos()));
+      configuration.setStoreByValue(false);
+      configuration.setStatisticsEnabled(true);
+      cacheManager.createCache(regionName, configuration);
+    }
+
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager cacheManager) {
+    return hibernateProperties -> {
+      hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+      hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+      // Characteristics are often saved without touching Resource.characteristics
+      hibernateProperties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+      // Every region must be configured above rather than silently created unbounded
+      hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  @Bean
+  public MeterBinder secondLevelCacheMetrics(CacheManager cacheManager) {
+    return registry ->
+        CacheRegions.ALL.forEach(
+            regionName ->
+                JCacheMetrics.monitor(
+                    registry, cacheManager.getCache(regionName), Tags.of("layer", "hibernate")));
+  }
+}
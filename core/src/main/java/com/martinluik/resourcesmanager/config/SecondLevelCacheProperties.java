@@ -0,0 +1,23 @@
+package com.martinluik.resourcesmanager.config;
+
+import java.time.Duration;
+import java.util.Map;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Sizing of the second-level cache regions. Regions without an entry under {@code regions} use
+ * {@code defaults}.
+ */
+@ConfigurationProperties("resources-manager.cache")
+public record SecondLevelCacheProperties(
+    @DefaultValue Region defaults, @Nullable Map<String, Region> regions) {
+
+  public Region region(String name) {
+    return regions == null ? defaults : regions.getOrDefault(name, defaults);
+  }
+
+  public record Region(
+      @DefaultValue("10000") long maximumSize, @DefaultValue("10m") Duration expireAfterWrite) {}
+}
@@ -0,0 +1,19 @@
+package com.martinluik.resourcesmanager.domain;
+
+import java.util.List;
+
+/** Hibernate second-level cache regions. Each region is sized by its own configuration. */
+public final class CacheRegions {
+
+  public static final String RESOURCE = "resource";
+  public static final String RESOURCE_CHARACTERISTICS = "resource-characteristics";
+  public static final String LOCATION = "location";
+  public static final String CHARACTERISTIC = "characteristic";
+
+  public static final List<String> ALL =
+      List.of(RESOURCE, RESOURCE_CHARACTERISTICS, LOCATION, CHARACTERISTIC);
+
+  private CacheRegions() {
+    // Utility class - prevent instantiation
+  }
+}
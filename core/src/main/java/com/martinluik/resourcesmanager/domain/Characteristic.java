@@ -1,6 +1,7 @@
 package com.martinluik.resourcesmanager.domain;
 
 import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,16 +9,32 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CHARACTERISTIC)
+@Table(
+    indexes = {
+      @Index(name = "idx_characteristic_resource_id", columnList = "resource_id"),
+      @Index(name = "idx_characteristic_type_value", columnList = "type, value")
+    })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +44,14 @@ public class Characteristic {
 
   @Id @GeneratedValue private UUID id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @UpdateTimestamp
+  @Column(nullable = false)
+  private Instant updatedAt;
+
   @Column(nullable = false, length = 5)
   private String code;
 
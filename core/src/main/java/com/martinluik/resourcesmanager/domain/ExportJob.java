@@ -0,0 +1,64 @@
+package com.martinluik.resourcesmanager.domain;
+
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportJob {
+
+  @Id @GeneratedValue private UUID id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private ExportJobStatus status;
+
+  // Incremented whenever a worker takes the job over, a previous worker's updates then no longer
+  // match and it stops
+  @Column(nullable = false)
+  private int attempt;
+
+  @Column(nullable = false)
+  private long totalResources;
+
+  @Column(nullable = false)
+  private long resourcesExported;
+
+  @Column(nullable = false)
+  private int chunksSent;
+
+  // Last resource of the last acknowledged chunk, a resumed export continues after it
+  @Nullable private UUID lastResourceId;
+
+  @Nullable
+  @Column(length = 1000)
+  private String error;
+
+  @Column(nullable = false)
+  private Instant createdAt;
+
+  @Nullable private Instant startedAt;
+
+  @Nullable private Instant finishedAt;
+
+  // Refreshed with every chunk, a running job that stops refreshing it is resumed elsewhere
+  @Column(nullable = false)
+  private Instant heartbeatAt;
+}
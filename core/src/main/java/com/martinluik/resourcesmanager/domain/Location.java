@@ -1,20 +1,30 @@
 package com.martinluik.resourcesmanager.domain;
 
 import com.martinluik.resourcesmanager.constants.ValidationMessages;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import java.time.Instant;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.LOCATION)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +34,14 @@ public class Location {
 
   @Id @GeneratedValue private UUID id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @UpdateTimestamp
+  @Column(nullable = false)
+  private Instant updatedAt;
+
   @Column(nullable = false)
   @NotBlank(message = ValidationMessages.STREET_ADDRESS_REQUIRED)
   @Size(max = 255, message = ValidationMessages.STREET_ADDRESS_MAX_SIZE)
@@ -0,0 +1,63 @@
+package com.martinluik.resourcesmanager.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A Kafka record written in the same transaction as the change it describes, published later by
+ * OutboxRelay.
+ */
+@Entity
+@Table(
+    name = "outbox",
+    indexes = @Index(name = "idx_outbox_created_at", columnList = "created_at, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxMessage {
+
+  @Id @GeneratedValue private UUID id;
+
+  @Column(nullable = false)
+  private String topic;
+
+  @Column(name = "message_key", nullable = false)
+  private String key;
+
+  // A null payload is a tombstone
+  @Nullable
+  @Column(name = "payload_bytes")
+  private byte[] payload;
+
+  // JSON payloads as text for nodes that still read the old column, to be dropped with it
+  @Nullable
+  @Column(name = "payload", columnDefinition = "TEXT")
+  private String legacyPayload;
+
+  // Format of the payload, see PayloadFormat
+  @Nullable private String contentType;
+
+  // Kind of resource event, see ResourceEventType
+  @Nullable private String eventType;
+
+  // Taken from the database clock when the row is inserted, so a later change of the same
+  // resource always sorts after an earlier one
+  @ColumnDefault("clock_timestamp()")
+  @Column(nullable = false, insertable = false, updatable = false)
+  private Instant createdAt;
+}
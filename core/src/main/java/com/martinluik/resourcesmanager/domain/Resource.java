@@ -1,16 +1,22 @@
 package com.martinluik.resourcesmanager.domain;
 
 import com.martinluik.resourcesmanager.enums.ResourceType;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -18,8 +24,19 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.RESOURCE)
+@Table(
+    indexes = @Index(name = "idx_resource_country_code_type", columnList = "country_code, type"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,6 +46,10 @@ public class Resource {
 
   @Id @GeneratedValue private UUID id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false)
   private ResourceType type;
@@ -36,10 +57,41 @@ public class Resource {
   @Column(nullable = false, length = 2)
   private String countryCode;
 
-  @OneToOne(cascade = CascadeType.ALL, orphanRemoval = true)
+  // Version last published in full; deltas follow while it is behind the version. Excluded from
+  // optimistic locking because recording it does not change the resource
+  @OptimisticLock(excluded = true)
+  @Builder.Default
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long snapshotVersion = 0L;
+
+  @UpdateTimestamp
+  @Column(nullable = false)
+  private Instant updatedAt;
+
+  @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
   @JoinColumn(name = "location_id", nullable = false)
   private Location location;
 
+  @Cache(
+      usage = CacheConcurrencyStrategy.READ_WRITE,
+      region = CacheRegions.RESOURCE_CHARACTERISTICS)
   @OneToMany(mappedBy = "resource", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Characteristic> characteristics;
+
+  /**
+   * Makes the resource dirty so that a change to its location or characteristics alone still
+   * bumps its version and update timestamp.
+   */
+  public void markModified() {
+    updatedAt = Instant.now();
+  }
+
+  /**
+   * Records the version the next flush gives this modified resource as published in full, so that
+   * the snapshot version is written by the same UPDATE as the change.
+   */
+  public void markSnapshotOfNextVersion() {
+    snapshotVersion = version + 1;
+  }
 }
@@ -5,6 +5,7 @@ import com.martinluik.resourcesmanager.domain.Characteristic;
 import com.martinluik.resourcesmanager.dto.CharacteristicDto;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(config = CommonMapperConfig.class)
 public interface CharacteristicMapper {
@@ -13,5 +14,13 @@ public interface CharacteristicMapper {
   CharacteristicDto toDto(Characteristic entity);
 
   @Mapping(target = "resource", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
   Characteristic toEntity(CharacteristicDto dto);
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "resource", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  void updateEntity(CharacteristicDto dto, @MappingTarget Characteristic entity);
 }
@@ -3,12 +3,39 @@ package com.martinluik.resourcesmanager.mapper;
 import com.martinluik.resourcesmanager.config.CommonMapperConfig;
 import com.martinluik.resourcesmanager.domain.Location;
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import java.util.Objects;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(config = CommonMapperConfig.class)
 public interface LocationMapper {
 
   LocationDto toDto(Location entity);
 
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
   Location toEntity(LocationDto dto);
+
+  @Mapping(target = "id", ignore = true)
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  void updateEntity(LocationDto dto, @MappingTarget Location entity);
+
+  /**
+   * Updates the entity only when one of its fields differs from the DTO, so an unchanged location
+   * is neither written nor counted as a change to its resource.
+   *
+   * @return whether the location changed
+   */
+  default boolean updateEntityIfChanged(LocationDto dto, Location entity) {
+    if (Objects.equals(dto.getStreetAddress(), entity.getStreetAddress())
+        && Objects.equals(dto.getCity(), entity.getCity())
+        && Objects.equals(dto.getPostalCode(), entity.getPostalCode())
+        && Objects.equals(dto.getCountryCode(), entity.getCountryCode())) {
+      return false;
+    }
+    updateEntity(dto, entity);
+    return true;
+  }
 }
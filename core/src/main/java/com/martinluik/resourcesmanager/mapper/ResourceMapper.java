@@ -4,6 +4,7 @@ import com.martinluik.resourcesmanager.config.CommonMapperConfig;
 import com.martinluik.resourcesmanager.domain.Resource;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(
     config = CommonMapperConfig.class,
@@ -12,5 +13,8 @@ public interface ResourceMapper {
 
   ResourceDto toDto(Resource resource);
 
+  @Mapping(target = "version", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  @Mapping(target = "snapshotVersion", ignore = true)
   Resource toEntity(ResourceDto dto);
 }
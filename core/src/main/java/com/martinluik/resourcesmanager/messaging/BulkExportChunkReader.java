@@ -0,0 +1,75 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads a bulk export chunk straight from the record's bytes and hands its resources to a sink one
+ * at a time, so neither a String copy of the payload nor the list of all its resources is built.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkExportChunkReader {
+
+  private final PayloadCodec payloadCodec;
+
+  public Chunk read(byte[] payload, PayloadFormat format, Consumer<ResourceDto> sink)
+      throws IOException {
+    UUID exportId = null;
+    var sequence = 0;
+    var last = false;
+    var resourceCount = 0;
+
+    try (var parser = payloadCodec.createParser(payload, format)) {
+      expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var field = parser.currentName();
+        var value = parser.nextToken();
+        switch (field) {
+          case "exportId" -> exportId = UUID.fromString(parser.getValueAsString());
+          case "sequence" -> sequence = parser.getIntValue();
+          case "last" -> last = parser.getBooleanValue();
+          case "resources" -> resourceCount = readResources(parser, value, sink);
+          default -> parser.skipChildren();
+        }
+      }
+    }
+
+    return new Chunk(exportId, sequence, last, resourceCount);
+  }
+
+  private int readResources(JsonParser parser, JsonToken value, Consumer<ResourceDto> sink)
+      throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return 0;
+    }
+    expect(parser, value, JsonToken.START_ARRAY);
+
+    // Anything but resources up to the end of the array fails the chunk instead of cutting it short
+    var count = 0;
+    for (var token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+      expect(parser, token, JsonToken.START_OBJECT);
+      sink.accept(parser.readValueAs(ResourceDto.class));
+      count++;
+    }
+    return count;
+  }
+
+  private static void expect(JsonParser parser, @Nullable JsonToken actual, JsonToken expected)
+      throws IOException {
+    if (actual != expected) {
+      throw new IOException(
+          "Expected " + expected + " but found " + actual + " at " + parser.currentLocation());
+    }
+  }
+
+  /** Everything about a chunk except its resources, which went to the sink. */
+  public record Chunk(@Nullable UUID exportId, int sequence, boolean last, int resourceCount) {}
+}
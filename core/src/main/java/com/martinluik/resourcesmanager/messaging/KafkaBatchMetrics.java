@@ -0,0 +1,62 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies a polled batch one partition at a time and meters the records and processing time of
+ * each partition, which shows whether adding consumers would spread the load.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaBatchMetrics {
+
+  private final MeterRegistry meterRegistry;
+  private final Map<TopicPartition, PartitionMeters> partitionMeters = new ConcurrentHashMap<>();
+
+  public <K, V> void processByPartition(
+      List<ConsumerRecord<K, V>> records, Consumer<List<ConsumerRecord<K, V>>> handler) {
+    var recordsByPartition =
+        records.stream()
+            .collect(
+                Collectors.groupingBy(
+                    record -> new TopicPartition(record.topic(), record.partition()),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
+
+    recordsByPartition.forEach(
+        (partition, partitionRecords) -> {
+          var meters = partitionMeters.computeIfAbsent(partition, this::register);
+          meters.processing().record(() -> handler.accept(partitionRecords));
+          meters.records().increment(partitionRecords.size());
+        });
+  }
+
+  private PartitionMeters register(TopicPartition partition) {
+    var tags =
+        Tags.of("topic", partition.topic(), "partition", String.valueOf(partition.partition()));
+    return new PartitionMeters(
+        Timer.builder("kafka.consumer.batch.processing")
+            .description("Time to apply the records of one partition from a polled batch")
+            .tags(tags)
+            .register(meterRegistry),
+        Counter.builder("kafka.consumer.records")
+            .description("Records applied by the batch listeners")
+            .tags(tags)
+            .register(meterRegistry));
+  }
+
+  private record PartitionMeters(Timer processing, Counter records) {}
+}
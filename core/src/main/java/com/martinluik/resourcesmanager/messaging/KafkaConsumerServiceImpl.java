@@ -1,45 +1,143 @@
 package com.martinluik.resourcesmanager.messaging;
 
+import static com.martinluik.resourcesmanager.config.KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY;
 import static com.martinluik.resourcesmanager.config.KafkaConfig.BULK_EXPORT_TOPIC;
 import static com.martinluik.resourcesmanager.config.KafkaConfig.RESOURCES_UPDATES_TOPIC;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.service.ResourceCacheEvictor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KafkaConsumerServiceImpl {
 
   private static final String RESOURCES_GROUP_ID = "resources-group";
 
-  private final ObjectMapper mapper;
+  // Every node needs every update for its local caches, so each one consumes in its own group
+  private static final String NEAR_CACHE_GROUP_ID =
+      "${resources-manager.near-cache.group-id-prefix:resources-near-cache}"
+          + "-${HOSTNAME:${random.uuid}}";
 
-  @KafkaListener(topics = RESOURCES_UPDATES_TOPIC, groupId = RESOURCES_GROUP_ID)
-  public void listenResourceUpdates(String message) {
+  private final PayloadCodec payloadCodec;
+  private final ResourceCacheEvictor resourceCacheEvictor;
+  private final KafkaBatchMetrics kafkaBatchMetrics;
+  private final BulkExportChunkReader bulkExportChunkReader;
+  private final Counter exportedResourcesCounter;
+
+  public KafkaConsumerServiceImpl(
+      PayloadCodec payloadCodec,
+      ResourceCacheEvictor resourceCacheEvictor,
+      KafkaBatchMetrics kafkaBatchMetrics,
+      BulkExportChunkReader bulkExportChunkReader,
+      MeterRegistry meterRegistry) {
+    this.payloadCodec = payloadCodec;
+    this.resourceCacheEvictor = resourceCacheEvictor;
+    this.kafkaBatchMetrics = kafkaBatchMetrics;
+    this.bulkExportChunkReader = bulkExportChunkReader;
+    this.exportedResourcesCounter =
+        Counter.builder("kafka.consumer.bulk-export.resources")
+            .description("Resources read from received bulk export chunks")
+            .register(meterRegistry);
+  }
+
+  // Only changes made after startup matter, older ones cannot be cached locally yet
+  @KafkaListener(
+      topics = RESOURCES_UPDATES_TOPIC,
+      groupId = NEAR_CACHE_GROUP_ID,
+      containerFactory = BATCH_LISTENER_CONTAINER_FACTORY,
+      properties = "auto.offset.reset=latest")
+  public void listenResourceUpdates(
+      List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+    kafkaBatchMetrics.processByPartition(records, this::applyResourceUpdates);
+    acknowledgment.acknowledge();
+  }
+
+  @KafkaListener(
+      topics = BULK_EXPORT_TOPIC,
+      groupId = RESOURCES_GROUP_ID,
+      containerFactory = BATCH_LISTENER_CONTAINER_FACTORY)
+  public void listenBulkExport(
+      List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+    kafkaBatchMetrics.processByPartition(
+        records, partitionRecords -> partitionRecords.forEach(this::applyBulkExportChunk));
+    acknowledgment.acknowledge();
+  }
+
+  // The whole partition batch is decoded first and its stale cache entries evicted at once
+  private void applyResourceUpdates(List<ConsumerRecord<String, byte[]>> records) {
+    var changes = resourceCacheEvictor.remoteChanges();
+    records.forEach(record -> collectResourceUpdate(record, changes));
+    changes.evict();
+  }
+
+  // Records that cannot be read are logged and skipped rather than retried forever
+  private void collectResourceUpdate(
+      ConsumerRecord<String, byte[]> message, ResourceCacheEvictor.RemoteChanges changes) {
     try {
-      var resourceDto = mapper.readValue(message, ResourceDto.class);
-      log.info("Received resource update for resource ID: {}", resourceDto.getId());
-      // TODO - Add business logic here to process the resource update
-    } catch (JsonProcessingException e) {
+      if (message.value() == null) {
+        var resourceId = UUID.fromString(message.key());
+        log.info("Received resource deletion for resource ID: {}", resourceId);
+        changes.deleted(resourceId);
+        return;
+      }
+
+      var format = PayloadCodec.formatOf(message.headers());
+      if (ResourceEventType.of(message.headers()) == ResourceEventType.DELTA) {
+        var delta = payloadCodec.decode(message.value(), format, ResourceDeltaDto.class);
+        log.info(
+            "Received resource delta for resource ID: {}, version: {}",
+            delta.getId(),
+            delta.getVersion());
+        changes.updated(delta);
+        return;
+      }
+
+      var resourceDto = payloadCodec.decode(message.value(), format, ResourceDto.class);
+      log.info(
+          "Received resource update for resource ID: {}, version: {}",
+          resourceDto.getId(),
+          resourceDto.getVersion());
+      changes.updated(resourceDto);
+    } catch (IOException e) {
       log.error("Failed to deserialize resource update message", e);
+    } catch (IllegalArgumentException e) {
+      log.error("Invalid resource update, key: {}", message.key(), e);
     }
   }
 
-  @KafkaListener(topics = BULK_EXPORT_TOPIC, groupId = RESOURCES_GROUP_ID)
-  public void listenBulkExport(String message) {
+  private void applyBulkExportChunk(ConsumerRecord<String, byte[]> message) {
+    if (message.value() == null) {
+      log.warn("Skipping bulk export record without a value, key: {}", message.key());
+      return;
+    }
+
     try {
-      var resources = mapper.readValue(message, new TypeReference<List<ResourceDto>>() {});
-      log.info("Received bulk export with {} resources", resources.size());
-      // TODO - Add business logic here to process the bulk export resources
-    } catch (JsonProcessingException e) {
+      var chunk =
+          bulkExportChunkReader.read(
+              message.value(),
+              PayloadCodec.formatOf(message.headers()),
+              resource -> {
+                // TODO - Add business logic here to process each exported resource
+                exportedResourcesCounter.increment();
+              });
+      log.info(
+          "Received chunk {} of bulk export {} with {} resources{}",
+          chunk.sequence(),
+          chunk.exportId(),
+          chunk.resourceCount(),
+          chunk.last() ? ", the last one" : "");
+    } catch (IOException | IllegalArgumentException e) {
       log.error("Failed to deserialize bulk export message", e);
     }
   }
@@ -1,88 +1,148 @@
 package com.martinluik.resourcesmanager.messaging;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import static com.martinluik.resourcesmanager.config.KafkaConfig.BULK_EXPORT_TOPIC;
 import static com.martinluik.resourcesmanager.config.KafkaConfig.RESOURCES_UPDATES_TOPIC;
+import com.martinluik.resourcesmanager.domain.OutboxMessage;
+import com.martinluik.resourcesmanager.dto.BulkExportChunkDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.repository.OutboxRepository;
 import com.martinluik.resourcesmanager.service.KafkaService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Resource events are written to the outbox in the caller's transaction and published by {@link
+ * OutboxRelay} once it has committed. Bulk export chunks are not tied to a change and
+ * are sent directly.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class KafkaProducerServiceImpl implements KafkaService {
 
-  private final KafkaTemplate<String, String> kafkaTemplate;
-  private final ObjectMapper objectMapper;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final PayloadCodec payloadCodec;
+  private final OutboxRepository outboxRepository;
 
   @Override
+  @Transactional(propagation = Propagation.MANDATORY)
   public void sendResourceUpdate(ResourceDto resourceDto) {
-    try {
-      var resourceData = objectMapper.writeValueAsString(resourceDto);
-      var future =
-          kafkaTemplate.send(
-              RESOURCES_UPDATES_TOPIC, String.valueOf(resourceDto.getId()), resourceData);
+    outboxRepository.save(toOutboxMessage(resourceDto));
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void sendResourceUpdates(List<ResourceDto> resourceDtos) {
+    outboxRepository.saveAll(resourceDtos.stream().map(this::toOutboxMessage).toList());
+  }
 
-      future.whenComplete(
-          (result, ex) -> {
-            if (ex == null) {
-              log.info(
-                  "Resource update sent to Kafka - Topic: {}, Partition: {}, Offset: {}, Key: {}",
-                  result.getRecordMetadata().topic(),
-                  result.getRecordMetadata().partition(),
-                  result.getRecordMetadata().offset(),
-                  result.getProducerRecord().key());
-            } else {
-              log.error(
-                  "Failed to send resource update to Kafka for resource ID: {}",
-                  resourceDto.getId(),
-                  ex);
-            }
-          });
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void sendResourceDelta(ResourceDeltaDto resourceDelta) {
+    try {
+      var payload = payloadCodec.encode(resourceDelta);
+      outboxRepository.save(
+          OutboxMessage.builder()
+              .topic(RESOURCES_UPDATES_TOPIC)
+              .key(String.valueOf(resourceDelta.getId()))
+              .payload(payload)
+              .legacyPayload(legacyPayload(payload))
+              .contentType(payloadCodec.producerFormat().contentType())
+              .eventType(ResourceEventType.DELTA.value())
+              .build());
     } catch (JsonProcessingException e) {
-      log.error(
-          "Failed to serialize resource data for Kafka, resource ID: {}", resourceDto.getId(), e);
-    } catch (Exception e) {
-      log.error(
-          "Unexpected error sending resource update to Kafka, resource ID: {}",
-          resourceDto.getId(),
+      throw new IllegalStateException(
+          "Failed to serialize resource delta for Kafka, resource ID: " + resourceDelta.getId(),
           e);
     }
   }
 
+  // A null value is a tombstone for the resource key
+  @Override
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void sendResourceDeletion(UUID resourceId) {
+    outboxRepository.save(
+        OutboxMessage.builder()
+            .topic(RESOURCES_UPDATES_TOPIC)
+            .key(String.valueOf(resourceId))
+            .build());
+  }
+
+  // Chunks are keyed by their export so they stay in sequence on one partition
   @Override
-  public void sendBulkExport(List<ResourceDto> resources) {
-    log.info("Sending bulk export of {} resources to Kafka", resources.size());
+  public CompletableFuture<Void> sendBulkExportChunk(BulkExportChunkDto chunk) {
+    var record =
+        new ProducerRecord<>(BULK_EXPORT_TOPIC, String.valueOf(chunk.getExportId()), encode(chunk));
+    record.headers().add(PayloadCodec.contentTypeHeader(payloadCodec.producerFormat()));
+
+    return kafkaTemplate
+        .send(record)
+        .whenComplete(
+            (result, ex) -> {
+              if (ex == null) {
+                log.debug(
+                    "Bulk export chunk sent to Kafka - Export: {}, Sequence: {}, Resources: {}",
+                    chunk.getExportId(),
+                    chunk.getSequence(),
+                    chunk.getResources().size());
+              } else {
+                log.error(
+                    "Failed to send bulk export chunk {} of export {} to Kafka",
+                    chunk.getSequence(),
+                    chunk.getExportId(),
+                    ex);
+              }
+            })
+        .thenApply(result -> null);
+  }
 
+  private byte[] encode(BulkExportChunkDto chunk) {
     try {
-      var resourcesData = objectMapper.writeValueAsString(resources);
-      var future = kafkaTemplate.send(BULK_EXPORT_TOPIC, "bulk-export", resourcesData);
+      return payloadCodec.encode(chunk);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(
+          "Failed to serialize bulk export chunk " + chunk.getSequence(), e);
+    }
+  }
+
+  // Nodes of the previous release relay the TEXT column, which can only hold JSON; binary formats
+  // are switched on once every node is upgraded
+  @Nullable
+  private String legacyPayload(byte[] payload) {
+    return payloadCodec.producerFormat() == PayloadFormat.JSON
+        ? new String(payload, StandardCharsets.UTF_8)
+        : null;
+  }
 
-      future.whenComplete(
-          (result, ex) -> {
-            if (ex == null) {
-              log.info(
-                  "Bulk export sent to Kafka - Topic: {}, Partition: {}, Offset: {}, Resources count: {}",
-                  result.getRecordMetadata().topic(),
-                  result.getRecordMetadata().partition(),
-                  result.getRecordMetadata().offset(),
-                  resources.size());
-            } else {
-              log.error("Failed to send bulk export to Kafka", ex);
-            }
-          });
+  private OutboxMessage toOutboxMessage(ResourceDto resourceDto) {
+    try {
+      var payload = payloadCodec.encode(resourceDto);
+      return OutboxMessage.builder()
+          .topic(RESOURCES_UPDATES_TOPIC)
+          .key(String.valueOf(resourceDto.getId()))
+          .payload(payload)
+          .legacyPayload(legacyPayload(payload))
+          .contentType(payloadCodec.producerFormat().contentType())
+          .eventType(ResourceEventType.SNAPSHOT.value())
+          .build();
     } catch (JsonProcessingException e) {
-      log.error("Failed to serialize resources data for bulk export", e);
-    } catch (Exception e) {
-      log.error("Unexpected error sending bulk export to Kafka", e);
+      throw new IllegalStateException(
+          "Failed to serialize resource data for Kafka, resource ID: " + resourceDto.getId(), e);
     }
   }
 }
@@ -0,0 +1,259 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import com.martinluik.resourcesmanager.config.OutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes outbox messages to Kafka. Keys are hashed into {@link OutboxProperties#parallelism()}
+ * partitions, each relayed by its own worker. A worker holds an advisory lock on its partition
+ * while it relays a batch, so the messages of one key are published by one worker at a time and in
+ * the order they were written, while SKIP LOCKED keeps any other claimer off the rows it holds.
+ * Messages are deleted once Kafka has acknowledged the whole batch, so delivery is at least once.
+ */
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+
+  // First half of the advisory lock key, the partition is the second half
+  private static final int PARTITION_LOCK_CLASS = 0x6f757462;
+
+  private static final String TRY_LOCK_PARTITION = "SELECT pg_try_advisory_xact_lock(?, ?)";
+  private static final String CLAIM_BATCH =
+      """
+      SELECT id, topic, message_key, content_type, event_type,
+          COALESCE(payload_bytes, convert_to(payload, 'UTF8')) AS payload
+      FROM outbox
+      WHERE (hashtext(message_key) & 2147483647) % ? = ?
+      ORDER BY created_at, id
+      LIMIT ?
+      FOR UPDATE SKIP LOCKED
+      """;
+  private static final String DELETE_RELAYED = "DELETE FROM outbox WHERE id = ANY (?)";
+  private static final String LAG_SECONDS =
+      "SELECT COALESCE(EXTRACT(EPOCH FROM clock_timestamp() - min(created_at)), 0) FROM outbox";
+
+  private static final RowMapper<Message> MESSAGE_ROW_MAPPER =
+      (rs, rowNum) ->
+          new Message(
+              rs.getObject("id", UUID.class),
+              rs.getString("topic"),
+              rs.getString("message_key"),
+              rs.getBytes("payload"),
+              rs.getString("content_type"),
+              rs.getString("event_type"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final OutboxProperties properties;
+  private final Counter relayedCounter;
+  private final Counter failureCounter;
+  private final Timer batchTimer;
+
+  @Nullable private ScheduledExecutorService executor;
+
+  public OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      KafkaTemplate<String, byte[]> kafkaTemplate,
+      OutboxProperties properties,
+      MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.kafkaTemplate = kafkaTemplate;
+    this.properties = properties;
+    this.relayedCounter =
+        Counter.builder("outbox.relayed")
+            .description("Outbox messages published to Kafka")
+            .register(meterRegistry);
+    this.failureCounter =
+        Counter.builder("outbox.relay.failures")
+            .description("Outbox batches that could not be published and will be retried")
+            .register(meterRegistry);
+    this.batchTimer =
+        Timer.builder("outbox.relay.batch")
+            .description("Time to publish and delete one claimed outbox batch")
+            .register(meterRegistry);
+    Gauge.builder("outbox.lag", this, OutboxRelay::lagSeconds)
+        .description("Age of the oldest message waiting in the outbox")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+  }
+
+  /** Relays everything currently in the outbox, partition by partition. */
+  public int relayPending() {
+    var relayed = 0;
+    for (var partition = 0; partition < properties.parallelism(); partition++) {
+      relayed += drain(partition);
+    }
+    return relayed;
+  }
+
+  @Override
+  public void start() {
+    if (!properties.relayEnabled()) {
+      log.info("Outbox relay is disabled");
+      return;
+    }
+
+    executor =
+        Executors.newScheduledThreadPool(
+            properties.parallelism(), Thread.ofPlatform().name("outbox-relay-", 0).factory());
+    for (var partition = 0; partition < properties.parallelism(); partition++) {
+      var workerPartition = partition;
+      executor.scheduleWithFixedDelay(
+          () -> relayQuietly(workerPartition),
+          0,
+          properties.pollInterval().toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+    log.info("Outbox relay started with {} workers", properties.parallelism());
+  }
+
+  @Override
+  public void stop() {
+    if (executor == null) {
+      return;
+    }
+
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(properties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      executor.shutdownNow();
+    }
+    executor = null;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return executor != null;
+  }
+
+  // An exception would cancel the scheduled worker, the batch is retried on the next poll instead
+  private void relayQuietly(int partition) {
+    try {
+      drain(partition);
+    } catch (RuntimeException e) {
+      failureCounter.increment();
+      log.error("Failed to relay outbox partition {}", partition, e);
+    }
+  }
+
+  private int drain(int partition) {
+    var relayed = 0;
+    int batchSize;
+    do {
+      batchSize = relayBatch(partition);
+      relayed += batchSize;
+    } while (batchSize == properties.batchSize());
+    return relayed;
+  }
+
+  private int relayBatch(int partition) {
+    Integer relayed =
+        transactionTemplate.execute(
+            status -> {
+              var locked =
+                  jdbcTemplate.queryForObject(
+                      TRY_LOCK_PARTITION, Boolean.class, PARTITION_LOCK_CLASS, partition);
+              if (!Boolean.TRUE.equals(locked)) {
+                return 0;
+              }
+
+              var messages =
+                  jdbcTemplate.query(
+                      CLAIM_BATCH,
+                      MESSAGE_ROW_MAPPER,
+                      properties.parallelism(),
+                      partition,
+                      properties.batchSize());
+              if (messages.isEmpty()) {
+                return 0;
+              }
+
+              var sample = Timer.start();
+              publish(messages);
+              var ids = messages.stream().map(Message::id).toArray();
+              jdbcTemplate.update(
+                  DELETE_RELAYED,
+                  ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids)));
+              sample.stop(batchTimer);
+              return messages.size();
+            });
+    relayedCounter.increment(relayed);
+    return relayed;
+  }
+
+  // Records are handed to the producer back to back so they share its batches
+  private void publish(List<Message> messages) {
+    var futures =
+        messages.stream()
+            .map(message -> kafkaTemplate.send(message.toRecord()))
+            .toArray(CompletableFuture[]::new);
+    try {
+      CompletableFuture.allOf(futures)
+          .get(properties.sendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while relaying the outbox", e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new IllegalStateException(
+          "Failed to relay " + messages.size() + " outbox messages to Kafka", e);
+    }
+  }
+
+  private double lagSeconds() {
+    var lag = jdbcTemplate.queryForObject(LAG_SECONDS, Double.class);
+    return lag == null ? 0 : lag;
+  }
+
+  private record Message(
+      UUID id,
+      String topic,
+      String key,
+      @Nullable byte[] payload,
+      @Nullable String contentType,
+      @Nullable String eventType) {
+
+    ProducerRecord<String, byte[]> toRecord() {
+      var record = new ProducerRecord<>(topic, key, payload);
+      if (contentType != null) {
+        record
+            .headers()
+            .add(PayloadCodec.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+      }
+      if (eventType != null) {
+        record
+            .headers()
+            .add(ResourceEventType.HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+      }
+      return record;
+    }
+  }
+}
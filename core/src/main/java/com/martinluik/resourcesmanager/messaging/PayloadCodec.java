@@ -0,0 +1,72 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.martinluik.resourcesmanager.config.KafkaPayloadProperties;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes Kafka record values in the configured {@link PayloadFormat} and decodes them in whichever
+ * format their content-type header names, so producers and consumers can switch formats
+ * independently. Every format shares the configuration of the application's {@link ObjectMapper}.
+ */
+@Component
+public class PayloadCodec {
+
+  public static final String CONTENT_TYPE_HEADER = "content-type";
+
+  private final PayloadFormat producerFormat;
+  private final Map<PayloadFormat, ObjectMapper> mappers = new EnumMap<>(PayloadFormat.class);
+
+  public PayloadCodec(ObjectMapper objectMapper, KafkaPayloadProperties properties) {
+    this.producerFormat = properties.payloadFormat();
+    mappers.put(PayloadFormat.JSON, objectMapper);
+    mappers.put(PayloadFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+    mappers.put(PayloadFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+  }
+
+  /** The format new records are published in. */
+  public PayloadFormat producerFormat() {
+    return producerFormat;
+  }
+
+  public byte[] encode(Object value) throws JsonProcessingException {
+    return encode(value, producerFormat);
+  }
+
+  // Encodes into Jackson's recycled buffers and copies the result out once, without a String
+  public byte[] encode(Object value, PayloadFormat format) throws JsonProcessingException {
+    return mappers.get(format).writeValueAsBytes(value);
+  }
+
+  public <T> T decode(byte[] payload, PayloadFormat format, Class<T> type) throws IOException {
+    return mappers.get(format).readValue(payload, type);
+  }
+
+  /** A streaming parser over the payload, for values too large to bind at once. */
+  public JsonParser createParser(byte[] payload, PayloadFormat format) throws IOException {
+    return mappers.get(format).createParser(payload);
+  }
+
+  /** The format named by the content-type header, records without the header are JSON. */
+  public static PayloadFormat formatOf(Headers headers) {
+    var header = headers.lastHeader(CONTENT_TYPE_HEADER);
+    return PayloadFormat.fromContentType(
+        header == null ? null : new String(header.value(), StandardCharsets.UTF_8));
+  }
+
+  public static Header contentTypeHeader(PayloadFormat format) {
+    return new RecordHeader(
+        CONTENT_TYPE_HEADER, format.contentType().getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,33 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import org.jetbrains.annotations.Nullable;
+
+/** Encodings of Kafka record values, each named by the content-type header of its records. */
+public enum PayloadFormat {
+  JSON("application/json"),
+  SMILE("application/x-jackson-smile"),
+  CBOR("application/cbor");
+
+  private final String contentType;
+
+  PayloadFormat(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  /** The format with the given content type, records published without one are JSON. */
+  public static PayloadFormat fromContentType(@Nullable String contentType) {
+    if (contentType == null) {
+      return JSON;
+    }
+    for (var format : values()) {
+      if (format.contentType.equals(contentType)) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported payload content type: " + contentType);
+  }
+}
@@ -0,0 +1,135 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+
+/** Computes the delta between two states of a resource and applies a delta to a resource. */
+public final class ResourceDeltas {
+
+  private ResourceDeltas() {}
+
+  /** The changes from one state of a resource to the next, both as mapped from the entity. */
+  public static ResourceDeltaDto between(ResourceDto before, ResourceDto after) {
+    var delta =
+        ResourceDeltaDto.builder()
+            .id(after.getId())
+            .baseVersion(before.getVersion())
+            .version(after.getVersion())
+            .type(changed(before.getType(), after.getType()))
+            .countryCode(changed(before.getCountryCode(), after.getCountryCode()))
+            .location(locationChanges(before.getLocation(), after.getLocation()))
+            .build();
+
+    var previous = byId(before.getCharacteristics());
+    var added = new ArrayList<CharacteristicDto>();
+    var updated = new ArrayList<CharacteristicDto>();
+    for (var characteristic : orEmpty(after.getCharacteristics())) {
+      var previousCharacteristic = previous.remove(characteristic.getId());
+      if (previousCharacteristic == null) {
+        added.add(characteristic);
+      } else if (!previousCharacteristic.equals(characteristic)) {
+        updated.add(characteristic);
+      }
+    }
+    delta.setAddedCharacteristics(added.isEmpty() ? null : added);
+    delta.setUpdatedCharacteristics(updated.isEmpty() ? null : updated);
+    delta.setRemovedCharacteristicIds(
+        previous.isEmpty() ? null : List.copyOf(previous.keySet()));
+    return delta;
+  }
+
+  /** The resource with the delta applied, the resource has to be at the delta's base version. */
+  public static ResourceDto apply(ResourceDto resource, ResourceDeltaDto delta) {
+    var result =
+        ResourceDto.builder()
+            .id(resource.getId())
+            .version(delta.getVersion())
+            .type(delta.getType() == null ? resource.getType() : delta.getType())
+            .countryCode(
+                delta.getCountryCode() == null
+                    ? resource.getCountryCode()
+                    : delta.getCountryCode())
+            .location(applyLocation(resource.getLocation(), delta.getLocation()))
+            .build();
+
+    var removedIds = new HashSet<>(orEmpty(delta.getRemovedCharacteristicIds()));
+    var updated = byId(delta.getUpdatedCharacteristics());
+    var characteristics = new ArrayList<CharacteristicDto>();
+    for (var characteristic : orEmpty(resource.getCharacteristics())) {
+      if (!removedIds.contains(characteristic.getId())) {
+        characteristics.add(updated.getOrDefault(characteristic.getId(), characteristic));
+      }
+    }
+    characteristics.addAll(orEmpty(delta.getAddedCharacteristics()));
+    result.setCharacteristics(characteristics);
+    return result;
+  }
+
+  // Only the changed fields, or every field when the resource moved to another location
+  @Nullable
+  private static LocationDto locationChanges(
+      @Nullable LocationDto before, @Nullable LocationDto after) {
+    if (after == null || after.equals(before)) {
+      return null;
+    }
+    if (before == null || !Objects.equals(before.getId(), after.getId())) {
+      return after;
+    }
+    return LocationDto.builder()
+        .id(after.getId())
+        .streetAddress(changed(before.getStreetAddress(), after.getStreetAddress()))
+        .city(changed(before.getCity(), after.getCity()))
+        .postalCode(changed(before.getPostalCode(), after.getPostalCode()))
+        .countryCode(changed(before.getCountryCode(), after.getCountryCode()))
+        .build();
+  }
+
+  @Nullable
+  private static LocationDto applyLocation(
+      @Nullable LocationDto location, @Nullable LocationDto changes) {
+    if (changes == null) {
+      return location;
+    }
+    if (location == null || !Objects.equals(location.getId(), changes.getId())) {
+      return changes;
+    }
+    return LocationDto.builder()
+        .id(location.getId())
+        .streetAddress(orElse(changes.getStreetAddress(), location.getStreetAddress()))
+        .city(orElse(changes.getCity(), location.getCity()))
+        .postalCode(orElse(changes.getPostalCode(), location.getPostalCode()))
+        .countryCode(orElse(changes.getCountryCode(), location.getCountryCode()))
+        .build();
+  }
+
+  @Nullable
+  private static <T> T changed(@Nullable T before, @Nullable T after) {
+    return Objects.equals(before, after) ? null : after;
+  }
+
+  private static <T> T orElse(@Nullable T value, T fallback) {
+    return value == null ? fallback : value;
+  }
+
+  private static <T> List<T> orEmpty(@Nullable List<T> values) {
+    return values == null ? List.of() : values;
+  }
+
+  private static Map<UUID, CharacteristicDto> byId(
+      @Nullable List<CharacteristicDto> characteristics) {
+    var byId = new LinkedHashMap<UUID, CharacteristicDto>();
+    orEmpty(characteristics)
+        .forEach(characteristic -> byId.put(characteristic.getId(), characteristic));
+    return byId;
+  }
+}
@@ -0,0 +1,46 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+/**
+ * Kinds of resource-updates records, named by their event-type header. A snapshot holds the whole
+ * resource as a ResourceDto, a delta only the changes of one version as a ResourceDeltaDto.
+ */
+public enum ResourceEventType {
+  SNAPSHOT("snapshot"),
+  DELTA("delta");
+
+  public static final String HEADER = "event-type";
+
+  private final String value;
+
+  ResourceEventType(String value) {
+    this.value = value;
+  }
+
+  public String value() {
+    return value;
+  }
+
+  public Header header() {
+    return new RecordHeader(HEADER, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** The type named by the event-type header, records published without one are snapshots. */
+  public static ResourceEventType of(Headers headers) {
+    var header = headers.lastHeader(HEADER);
+    if (header == null) {
+      return SNAPSHOT;
+    }
+    var value = new String(header.value(), StandardCharsets.UTF_8);
+    for (var type : values()) {
+      if (type.value.equals(value)) {
+        return type;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported resource event type: " + value);
+  }
+}
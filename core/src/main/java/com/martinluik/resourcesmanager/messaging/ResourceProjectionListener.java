@@ -0,0 +1,135 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import static com.martinluik.resourcesmanager.config.KafkaConfig.BATCH_LISTENER_CONTAINER_FACTORY;
+import static com.martinluik.resourcesmanager.config.KafkaConfig.RESOURCES_UPDATES_TOPIC;
+
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.projection.ResourceProjection;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the {@link ResourceProjection} from resource-updates. Every node reads the topic in its own
+ * group and positions itself from the projection rather than from committed offsets: right after
+ * the loaded snapshot, or from the beginning of the compacted topic when there is none.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResourceProjectionListener implements ConsumerSeekAware {
+
+  static final String LISTENER_ID = "resource-projection";
+
+  private static final String PROJECTION_GROUP_ID =
+      "${resources-manager.projection.group-id-prefix:resources-projection}"
+          + "-${HOSTNAME:${random.uuid}}";
+
+  private final PayloadCodec payloadCodec;
+  private final ResourceProjection resourceProjection;
+  private final KafkaBatchMetrics kafkaBatchMetrics;
+
+  @KafkaListener(
+      id = LISTENER_ID,
+      topics = RESOURCES_UPDATES_TOPIC,
+      groupId = PROJECTION_GROUP_ID,
+      containerFactory = BATCH_LISTENER_CONTAINER_FACTORY,
+      autoStartup = "${resources-manager.projection.enabled:false}")
+  public void listenResourceUpdates(
+      List<ConsumerRecord<String, byte[]>> records,
+      Consumer<?, ?> consumer,
+      Acknowledgment acknowledgment) {
+    kafkaBatchMetrics.processByPartition(
+        records,
+        partitionRecords -> {
+          partitionRecords.forEach(this::applyResourceUpdate);
+
+          var last = partitionRecords.getLast();
+          var partition = new TopicPartition(last.topic(), last.partition());
+          resourceProjection.advance(last.partition(), last.offset() + 1);
+          consumer
+              .currentLag(partition)
+              .ifPresent(lag -> resourceProjection.observeLag(last.partition(), lag));
+        });
+    acknowledgment.acknowledge();
+  }
+
+  // A quiet topic is no reason to stop serving, the lag is taken from the broker instead
+  @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "-')")
+  public void onIdle(ListenerContainerIdleEvent event) {
+    var partitions = event.getTopicPartitions();
+    if (partitions == null || partitions.isEmpty()) {
+      return;
+    }
+
+    var consumer = event.getConsumer();
+    consumer
+        .endOffsets(partitions)
+        .forEach(
+            (partition, endOffset) ->
+                resourceProjection.observeLag(
+                    partition.partition(), endOffset - consumer.position(partition)));
+  }
+
+  @Override
+  public void onPartitionsAssigned(
+      Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+    for (var partition : assignments.keySet()) {
+      var nextOffset = resourceProjection.nextOffset(partition.partition());
+      if (nextOffset == null) {
+        callback.seekToBeginning(List.of(partition));
+      } else {
+        callback.seek(partition.topic(), partition.partition(), nextOffset);
+      }
+    }
+    resourceProjection.assign(
+        assignments.keySet().stream().map(TopicPartition::partition).toList());
+  }
+
+  @Override
+  public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    resourceProjection.revoke(partitions.stream().map(TopicPartition::partition).toList());
+  }
+
+  // Records that cannot be read are logged and skipped, like in the near cache listener
+  private void applyResourceUpdate(ConsumerRecord<String, byte[]> message) {
+    try {
+      if (message.value() == null) {
+        resourceProjection.remove(UUID.fromString(message.key()));
+        return;
+      }
+
+      var format = PayloadCodec.formatOf(message.headers());
+      if (ResourceEventType.of(message.headers()) == ResourceEventType.DELTA) {
+        resourceProjection.apply(
+            payloadCodec.decode(message.value(), format, ResourceDeltaDto.class));
+        return;
+      }
+
+      var resourceDto = payloadCodec.decode(message.value(), format, ResourceDto.class);
+      resourceProjection.put(resourceDto, format, message.value());
+    } catch (IOException e) {
+      log.error(
+          "Failed to deserialize resource update at offset {} of partition {}",
+          message.offset(),
+          message.partition(),
+          e);
+    } catch (IllegalArgumentException e) {
+      log.error("Invalid resource update, key: {}", message.key(), e);
+    }
+  }
+}
@@ -0,0 +1,404 @@
+package com.martinluik.resourcesmanager.projection;
+
+import static com.martinluik.resourcesmanager.config.KafkaConfig.RESOURCE_UPDATES_TOMBSTONE_RETENTION;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.martinluik.resourcesmanager.config.ResourceProjectionProperties;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import com.martinluik.resourcesmanager.messaging.PayloadCodec;
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import com.martinluik.resourcesmanager.messaging.ResourceDeltas;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Every resource as last published on resource-updates, held in memory with secondary indexes by
+ * country code and type, so resource pages can be served without PostgreSQL. Entries keep the
+ * published payload in its format and only a newer version replaces them, so records can be
+ * replayed safely. A delta is applied only to the version it is based on; when that version is not
+ * projected the resource is dropped and left as a gap until its next snapshot or deletion.
+ *
+ * <p>The projection tracks the next offset and the lag of every assigned partition. It is ready
+ * only while it has no gaps and each partition is within {@link
+ * ResourceProjectionProperties#maxLag()} and was last observed within {@link
+ * ResourceProjectionProperties#maxStaleness()}. Snapshots of the entries, gaps and offsets are
+ * written to local disk periodically and on shutdown and loaded on startup.
+ */
+@Slf4j
+@Component
+public class ResourceProjection implements SmartLifecycle {
+
+  // PostgreSQL compares UUIDs as unsigned bytes, pages have to come out in the database's order
+  static final Comparator<UUID> DATABASE_ORDER =
+      Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+          .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private final PayloadCodec payloadCodec;
+  private final ResourceProjectionProperties properties;
+  private final ConcurrentSkipListMap<UUID, Entry> resources =
+      new ConcurrentSkipListMap<>(DATABASE_ORDER);
+  private final Map<String, NavigableSet<UUID>> idsByCountryCode = new ConcurrentHashMap<>();
+  private final Map<ResourceType, NavigableSet<UUID>> idsByType = new ConcurrentHashMap<>();
+  private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+  private final Set<Integer> assignedPartitions = ConcurrentHashMap.newKeySet();
+  private final Map<Integer, Position> positions = new ConcurrentHashMap<>();
+  private final Set<UUID> gaps = ConcurrentHashMap.newKeySet();
+
+  @Nullable private volatile Instant snapshotAt;
+  @Nullable private ScheduledExecutorService snapshotExecutor;
+  private volatile boolean running;
+
+  public ResourceProjection(PayloadCodec payloadCodec, ResourceProjectionProperties properties) {
+    this.payloadCodec = payloadCodec;
+    this.properties = properties;
+  }
+
+  /** Whether the filter can be answered here, characteristic filters are left to the database. */
+  public boolean canServe(ResourceFilterDto filter) {
+    return properties.enabled() && !filter.hasCharacteristicFilter() && isReady();
+  }
+
+  public boolean isReady() {
+    var oldestObservation = Instant.now().minus(properties.maxStaleness());
+    return gaps.isEmpty()
+        && !assignedPartitions.isEmpty()
+        && assignedPartitions.stream()
+            .map(positions::get)
+            .allMatch(
+                position ->
+                    position != null
+                        && position.lag() <= properties.maxLag()
+                        && position.observedAt().isAfter(oldestObservation));
+  }
+
+  /** Resources matching the filter in database order, starting after the given resource. */
+  public List<ResourceDto> findPage(ResourceFilterDto filter, @Nullable UUID afterId, int limit) {
+    var candidates = candidates(filter);
+    var ids = afterId == null ? candidates : candidates.tailSet(afterId, false);
+
+    var page = new ArrayList<ResourceDto>(limit);
+    for (var id : ids) {
+      // The indexes are updated after the entries, so the entry itself decides whether it matches
+      var entry = resources.get(id);
+      if (entry != null && entry.matches(filter)) {
+        page.add(read(entry));
+        if (page.size() == limit) {
+          break;
+        }
+      }
+    }
+    return page;
+  }
+
+  public int size() {
+    return resources.size();
+  }
+
+  /**
+   * Stores the resource unless a newer version of it is already projected. A replay of the
+   * projected version still closes a gap, a snapshot may have recorded both.
+   */
+  public void put(ResourceDto resource, PayloadFormat format, byte[] payload) {
+    var version = resource.getVersion() == null ? 0 : resource.getVersion();
+    var entry =
+        new Entry(version, resource.getType(), resource.getCountryCode(), format, payload);
+    var previous = resources.get(resource.getId());
+    if (previous == null || previous.version() < version) {
+      resources.put(resource.getId(), entry);
+      reindex(resource.getId(), previous, entry);
+    }
+    if (previous == null || previous.version() <= version) {
+      gaps.remove(resource.getId());
+    }
+  }
+
+  /** Applies the delta to the version of the resource it is based on, older deltas are ignored. */
+  public void apply(ResourceDeltaDto delta) {
+    var previous = resources.get(delta.getId());
+    if (previous != null && previous.version() >= delta.getVersion()) {
+      return;
+    }
+    if (previous == null || previous.version() != delta.getBaseVersion()) {
+      log.debug(
+          "Resource {} has no projected version {} to apply a delta to",
+          delta.getId(),
+          delta.getBaseVersion());
+      gaps.add(delta.getId());
+      drop(delta.getId());
+      return;
+    }
+
+    var resource = ResourceDeltas.apply(read(previous), delta);
+    var entry =
+        new Entry(
+            delta.getVersion(),
+            resource.getType(),
+            resource.getCountryCode(),
+            previous.format(),
+            encode(resource, previous.format()));
+    resources.put(delta.getId(), entry);
+    reindex(delta.getId(), previous, entry);
+  }
+
+  public void remove(UUID id) {
+    drop(id);
+    gaps.remove(id);
+  }
+
+  /** Records that everything before the given offset of the partition has been applied. */
+  public void advance(int partition, long nextOffset) {
+    nextOffsets.merge(partition, nextOffset, Math::max);
+  }
+
+  /** Records how far the partition's consumer is behind the end of the topic. */
+  public void observeLag(int partition, long lag) {
+    positions.put(partition, new Position(lag, Instant.now()));
+  }
+
+  /** Offset to resume the partition from, or null when it has to be read from the beginning. */
+  @Nullable
+  public Long nextOffset(int partition) {
+    return nextOffsets.get(partition);
+  }
+
+  public void assign(Collection<Integer> partitions) {
+    assignedPartitions.addAll(partitions);
+  }
+
+  public void revoke(Collection<Integer> partitions) {
+    assignedPartitions.removeAll(partitions);
+    partitions.forEach(positions::remove);
+  }
+
+  public Status status() {
+    var partitions = new TreeMap<Integer, PartitionStatus>();
+    for (var partition : assignedPartitions) {
+      var position = positions.get(partition);
+      partitions.put(
+          partition,
+          new PartitionStatus(
+              nextOffsets.get(partition),
+              position == null ? null : position.lag(),
+              position == null ? null : position.observedAt()));
+    }
+    return new Status(
+        properties.enabled(), isReady(), resources.size(), gaps.size(), snapshotAt, partitions);
+  }
+
+  /**
+   * Writes the projection to the snapshot directory. The offsets are copied before the entries, so
+   * entries applied meanwhile are at most replayed after a restart, never skipped.
+   */
+  public void writeSnapshot() throws IOException {
+    var directory = properties.snapshotDirectory();
+    if (directory == null) {
+      return;
+    }
+
+    var offsets = Map.copyOf(nextOffsets);
+    var gapIds = Set.copyOf(gaps);
+    Files.createDirectories(directory);
+    ResourceProjectionSnapshot.write(snapshotFile(directory), offsets, gapIds, resources);
+    snapshotAt = Instant.now();
+    log.info("Wrote projection snapshot of {} resources", resources.size());
+  }
+
+  @Override
+  public void start() {
+    if (!properties.enabled()) {
+      log.info("Resource projection is disabled");
+      return;
+    }
+
+    if (properties.rebuildFromTopic()) {
+      log.info("Rebuilding resource projection from the beginning of the topic");
+    } else {
+      loadSnapshot();
+    }
+
+    if (properties.snapshotDirectory() != null) {
+      snapshotExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              Thread.ofPlatform().name("resource-projection-snapshot").factory());
+      var interval = properties.snapshotInterval().toMillis();
+      snapshotExecutor.scheduleWithFixedDelay(
+          this::writeSnapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (snapshotExecutor == null) {
+      return;
+    }
+
+    snapshotExecutor.shutdownNow();
+    snapshotExecutor = null;
+    writeSnapshotQuietly();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Starts before and stops after the listener containers, so the snapshot is loaded before the
+  // first seek and the last one is written once nothing is applied anymore
+  @Override
+  public int getPhase() {
+    return AbstractMessageListenerContainer.DEFAULT_PHASE - 1;
+  }
+
+  private void loadSnapshot() {
+    var directory = properties.snapshotDirectory();
+    if (directory == null || !Files.exists(snapshotFile(directory))) {
+      log.info("No projection snapshot found, reading the topic from the beginning");
+      return;
+    }
+
+    try {
+      var snapshot = ResourceProjectionSnapshot.read(snapshotFile(directory));
+      // Deletions older than the snapshot may have been compacted away since it was written
+      if (snapshot.writtenAt().plus(RESOURCE_UPDATES_TOMBSTONE_RETENTION).isBefore(Instant.now())) {
+        log.info("Projection snapshot is too old, reading the topic from the beginning");
+        return;
+      }
+
+      snapshot.entries().forEach((id, entry) -> reindex(id, null, entry));
+      resources.putAll(snapshot.entries());
+      nextOffsets.putAll(snapshot.nextOffsets());
+      gaps.addAll(snapshot.gaps());
+      snapshotAt = snapshot.writtenAt();
+      log.info("Loaded projection snapshot of {} resources", resources.size());
+    } catch (IOException e) {
+      log.warn("Could not read projection snapshot, reading the topic from the beginning", e);
+      resources.clear();
+      idsByCountryCode.clear();
+      idsByType.clear();
+      nextOffsets.clear();
+      gaps.clear();
+    }
+  }
+
+  private void writeSnapshotQuietly() {
+    try {
+      writeSnapshot();
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to write projection snapshot", e);
+    }
+  }
+
+  // The country code index comes first, it is usually the more selective one
+  private NavigableSet<UUID> candidates(ResourceFilterDto filter) {
+    if (filter.getCountryCode() != null) {
+      return idsByCountryCode.getOrDefault(
+          filter.getCountryCode(), Collections.emptyNavigableSet());
+    }
+    if (filter.getType() != null) {
+      return idsByType.getOrDefault(filter.getType(), Collections.emptyNavigableSet());
+    }
+    return resources.navigableKeySet();
+  }
+
+  private void reindex(UUID id, @Nullable Entry previous, @Nullable Entry current) {
+    if (previous != null) {
+      if (current == null || !previous.countryCode().equals(current.countryCode())) {
+        idsByCountryCode.getOrDefault(previous.countryCode(), Collections.emptyNavigableSet())
+            .remove(id);
+      }
+      if (current == null || previous.type() != current.type()) {
+        idsByType.getOrDefault(previous.type(), Collections.emptyNavigableSet()).remove(id);
+      }
+    }
+    if (current != null) {
+      idsByCountryCode.computeIfAbsent(current.countryCode(), key -> newIdSet()).add(id);
+      idsByType.computeIfAbsent(current.type(), key -> newIdSet()).add(id);
+    }
+  }
+
+  private void drop(UUID id) {
+    var previous = resources.remove(id);
+    if (previous != null) {
+      reindex(id, previous, null);
+    }
+  }
+
+  private ResourceDto read(Entry entry) {
+    try {
+      return payloadCodec.decode(entry.payload(), entry.format(), ResourceDto.class);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to deserialize projected resource", e);
+    }
+  }
+
+  private byte[] encode(ResourceDto resource, PayloadFormat format) {
+    try {
+      return payloadCodec.encode(resource, format);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(
+          "Failed to serialize projected resource " + resource.getId(), e);
+    }
+  }
+
+  private static NavigableSet<UUID> newIdSet() {
+    return new ConcurrentSkipListSet<>(DATABASE_ORDER);
+  }
+
+  private static Path snapshotFile(Path directory) {
+    return directory.resolve(ResourceProjectionSnapshot.FILE_NAME);
+  }
+
+  record Entry(
+      long version,
+      ResourceType type,
+      String countryCode,
+      PayloadFormat format,
+      byte[] payload) {
+
+    boolean matches(ResourceFilterDto filter) {
+      return (filter.getType() == null || filter.getType() == type)
+          && (filter.getCountryCode() == null || filter.getCountryCode().equals(countryCode));
+    }
+  }
+
+  private record Position(long lag, Instant observedAt) {}
+
+  public record Status(
+      boolean enabled,
+      boolean ready,
+      int resources,
+      int gaps,
+      @Nullable Instant snapshotAt,
+      Map<Integer, PartitionStatus> partitions) {}
+
+  public record PartitionStatus(
+      @Nullable Long nextOffset, @Nullable Long lag, @Nullable Instant observedAt) {}
+}
@@ -0,0 +1,136 @@
+package com.martinluik.resourcesmanager.projection;
+
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped binary snapshot of a {@link ResourceProjection}: the next offset of every partition and
+ * the resources left as gaps, followed by the entries. A snapshot is written to a temporary file
+ * and moved into place, so a crash while writing leaves the previous one intact.
+ */
+final class ResourceProjectionSnapshot {
+
+  static final String FILE_NAME = "resource-projection.snapshot";
+
+  private static final int FORMAT = 3;
+
+  private ResourceProjectionSnapshot() {}
+
+  static void write(
+      Path file,
+      Map<Integer, Long> nextOffsets,
+      Set<UUID> gaps,
+      Map<UUID, ResourceProjection.Entry> entries)
+      throws IOException {
+    var temporaryFile = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+    try {
+      try (var out =
+          new DataOutputStream(
+              new BufferedOutputStream(
+                  new GZIPOutputStream(Files.newOutputStream(temporaryFile))))) {
+        out.writeInt(FORMAT);
+        out.writeLong(Instant.now().toEpochMilli());
+        out.writeInt(nextOffsets.size());
+        for (var offset : nextOffsets.entrySet()) {
+          out.writeInt(offset.getKey());
+          out.writeLong(offset.getValue());
+        }
+        out.writeInt(gaps.size());
+        for (var id : gaps) {
+          out.writeLong(id.getMostSignificantBits());
+          out.writeLong(id.getLeastSignificantBits());
+        }
+
+        // The entries can change while they are written, so the count follows them
+        var count = 0;
+        for (var entry : entries.entrySet()) {
+          out.writeBoolean(true);
+          out.writeLong(entry.getKey().getMostSignificantBits());
+          out.writeLong(entry.getKey().getLeastSignificantBits());
+          out.writeLong(entry.getValue().version());
+          out.writeUTF(entry.getValue().type().name());
+          out.writeUTF(entry.getValue().countryCode());
+          out.writeUTF(entry.getValue().format().name());
+          out.writeInt(entry.getValue().payload().length);
+          out.write(entry.getValue().payload());
+          count++;
+        }
+        out.writeBoolean(false);
+        out.writeInt(count);
+      }
+      Files.move(
+          temporaryFile,
+          file,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  static Snapshot read(Path file) throws IOException {
+    try (var in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      var snapshotFormat = in.readInt();
+      if (snapshotFormat != FORMAT) {
+        throw new IOException("Unsupported projection snapshot format: " + snapshotFormat);
+      }
+
+      var writtenAt = Instant.ofEpochMilli(in.readLong());
+      var nextOffsets = new HashMap<Integer, Long>();
+      var partitions = in.readInt();
+      for (var i = 0; i < partitions; i++) {
+        nextOffsets.put(in.readInt(), in.readLong());
+      }
+      var gaps = new HashSet<UUID>();
+      var gapCount = in.readInt();
+      for (var i = 0; i < gapCount; i++) {
+        gaps.add(new UUID(in.readLong(), in.readLong()));
+      }
+
+      var entries = new LinkedHashMap<UUID, ResourceProjection.Entry>();
+      while (in.readBoolean()) {
+        var id = new UUID(in.readLong(), in.readLong());
+        var version = in.readLong();
+        var type = ResourceType.valueOf(in.readUTF());
+        var countryCode = in.readUTF();
+        var format = PayloadFormat.valueOf(in.readUTF());
+        var payload = new byte[in.readInt()];
+        in.readFully(payload);
+        entries.put(
+            id, new ResourceProjection.Entry(version, type, countryCode, format, payload));
+      }
+      if (in.readInt() != entries.size()) {
+        throw new IOException("Projection snapshot is truncated");
+      }
+
+      return new Snapshot(writtenAt, nextOffsets, gaps, entries);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("Projection snapshot contains an unknown type or payload format", e);
+    }
+  }
+
+  record Snapshot(
+      Instant writtenAt,
+      Map<Integer, Long> nextOffsets,
+      Set<UUID> gaps,
+      Map<UUID, ResourceProjection.Entry> entries) {}
+}
@@ -0,0 +1,42 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.RepositoryDefinition;
+
+/** Selects characteristics straight into {@link CharacteristicDto} projections. */
+@RepositoryDefinition(domainClass = Characteristic.class, idClass = UUID.class)
+public interface CharacteristicReadRepository {
+
+  String SELECT_DTOS =
+      "select new com.martinluik.resourcesmanager.dto.CharacteristicDto("
+          + "c.id, c.resource.id, c.version, c.code, c.type, c.value)"
+          + " from Characteristic c";
+
+  @Query(SELECT_DTOS + " order by c.id")
+  List<CharacteristicDto> findPage(Limit limit);
+
+  @Query(SELECT_DTOS + " where c.id > :afterId order by c.id")
+  List<CharacteristicDto> findPageAfter(UUID afterId, Limit limit);
+
+  @Query(SELECT_DTOS + " where c.id = :id")
+  Optional<CharacteristicDto> findDtoById(UUID id);
+
+  @Query(
+      "select new com.martinluik.resourcesmanager.dto.VersionDto(c.version, c.updatedAt)"
+          + " from Characteristic c where c.id = :id")
+  Optional<VersionDto> findVersionById(UUID id);
+
+  @Query(SELECT_DTOS + " where c.resource.id = :resourceId order by c.id")
+  List<CharacteristicDto> findDtosByResourceId(UUID resourceId);
+
+  @Query(SELECT_DTOS + " where c.resource.id in :resourceIds order by c.resource.id, c.id")
+  List<CharacteristicDto> findDtosByResourceIdIn(Collection<UUID> resourceIds);
+}
@@ -0,0 +1,77 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.domain.ExportJob;
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Job state changes are conditional updates, so a worker, a takeover and a cancellation racing on
+ * the same job never overwrite each other.
+ */
+@Repository
+public interface ExportJobRepository extends JpaRepository<ExportJob, UUID> {
+
+  String STATUS = "com.martinluik.resourcesmanager.enums.ExportJobStatus.";
+  String RESUMABLE =
+      "(j.status = "
+          + STATUS
+          + "QUEUED or (j.status = "
+          + STATUS
+          + "RUNNING and j.heartbeatAt < :staleBefore))";
+
+  @Query("select j.id from ExportJob j where " + RESUMABLE + " order by j.createdAt")
+  List<UUID> findResumableIds(Instant staleBefore);
+
+  @Modifying
+  @Query(
+      "update ExportJob j set j.status = "
+          + STATUS
+          + "RUNNING, j.attempt = j.attempt + 1, j.heartbeatAt = :now,"
+          + " j.startedAt = coalesce(j.startedAt, :now)"
+          + " where j.id = :id and "
+          + RESUMABLE)
+  int claim(UUID id, Instant now, Instant staleBefore);
+
+  @Modifying
+  @Query(
+      "update ExportJob j set j.chunksSent = :chunksSent,"
+          + " j.resourcesExported = :resourcesExported, j.lastResourceId = :lastResourceId,"
+          + " j.heartbeatAt = :now"
+          + " where j.id = :id and j.attempt = :attempt and j.status = "
+          + STATUS
+          + "RUNNING")
+  int recordProgress(
+      UUID id,
+      int attempt,
+      int chunksSent,
+      long resourcesExported,
+      @Nullable UUID lastResourceId,
+      Instant now);
+
+  @Modifying
+  @Query(
+      "update ExportJob j set j.status = :status, j.error = :error, j.finishedAt = :now"
+          + " where j.id = :id and j.attempt = :attempt and j.status = "
+          + STATUS
+          + "RUNNING")
+  int finish(UUID id, int attempt, ExportJobStatus status, @Nullable String error, Instant now);
+
+  @Modifying
+  @Query(
+      "update ExportJob j set j.status = "
+          + STATUS
+          + "CANCELLED, j.finishedAt = :now"
+          + " where j.id = :id and j.status in ("
+          + STATUS
+          + "QUEUED, "
+          + STATUS
+          + "RUNNING)")
+  int cancel(UUID id, Instant now);
+}
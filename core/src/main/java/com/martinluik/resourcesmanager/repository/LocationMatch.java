@@ -0,0 +1,25 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import java.util.UUID;
+
+/** A location found by trigram search together with its similarity to the query. */
+public interface LocationMatch {
+
+  UUID getId();
+
+  String getStreetAddress();
+
+  String getCity();
+
+  String getPostalCode();
+
+  String getCountryCode();
+
+  double getSimilarity();
+
+  default LocationDto toLocationDto() {
+    return new LocationDto(
+        getId(), getStreetAddress(), getCity(), getPostalCode(), getCountryCode());
+  }
+}
@@ -0,0 +1,55 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.domain.Location;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.RepositoryDefinition;
+
+/** Selects locations straight into {@link LocationDto} projections. */
+@RepositoryDefinition(domainClass = Location.class, idClass = UUID.class)
+public interface LocationReadRepository {
+
+  String SELECT_DTOS =
+      "select new com.martinluik.resourcesmanager.dto.LocationDto("
+          + "l.id, l.streetAddress, l.city, l.postalCode, l.countryCode)"
+          + " from Location l";
+
+  @Query(SELECT_DTOS + " order by l.id")
+  List<LocationDto> findPage(Limit limit);
+
+  @Query(SELECT_DTOS + " where l.id > :afterId order by l.id")
+  List<LocationDto> findPageAfter(UUID afterId, Limit limit);
+
+  @Query(SELECT_DTOS + " where l.id = :id")
+  Optional<LocationDto> findDtoById(UUID id);
+
+  @Query(
+      "select new com.martinluik.resourcesmanager.dto.VersionDto(l.version, l.updatedAt)"
+          + " from Location l where l.id = :id")
+  Optional<VersionDto> findVersionById(UUID id);
+
+  // The search text must stay identical to the expression of idx_location_search_text_trgm
+  @Query(
+      nativeQuery = true,
+      value =
+          """
+          SELECT l.id AS "id",
+                 l.street_address AS "streetAddress",
+                 l.city AS "city",
+                 l.postal_code AS "postalCode",
+                 l.country_code AS "countryCode",
+                 CAST(word_similarity(:query,
+                     (l.street_address || ' ' || l.city || ' ' || l.postal_code))
+                     AS double precision) AS "similarity"
+          FROM location l
+          WHERE :query <% (l.street_address || ' ' || l.city || ' ' || l.postal_code)
+          ORDER BY "similarity" DESC, l.id
+          LIMIT :limit
+          """)
+  List<LocationMatch> search(String query, int limit);
+}
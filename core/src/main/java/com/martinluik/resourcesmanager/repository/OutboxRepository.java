@@ -0,0 +1,9 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.domain.OutboxMessage;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxMessage, UUID> {}
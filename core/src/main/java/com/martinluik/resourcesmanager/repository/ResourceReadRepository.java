@@ -0,0 +1,52 @@
+package com.martinluik.resourcesmanager.repository;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.RepositoryDefinition;
+
+/**
+ * Selects resources straight into {@link ResourceRow} projections, skipping entity hydration.
+ * Every query orders rows by resource id so the rows of one resource are adjacent.
+ */
+@RepositoryDefinition(domainClass = Resource.class, idClass = UUID.class)
+public interface ResourceReadRepository extends ResourceReadRepositoryCustom {
+
+  String SELECT_ROWS =
+      "select new com.martinluik.resourcesmanager.repository.ResourceRow("
+          + "r.id, r.version, r.type, r.countryCode,"
+          + " l.id, l.streetAddress, l.city, l.postalCode, l.countryCode,"
+          + " c.id, c.version, c.code, c.type, c.value)"
+          + " from Resource r join r.location l left join r.characteristics c";
+
+  @Query(
+      "select new com.martinluik.resourcesmanager.dto.VersionDto(r.version, r.updatedAt)"
+          + " from Resource r where r.id = :id")
+  Optional<VersionDto> findVersionById(UUID id);
+
+  @Query(SELECT_ROWS + " where r.id in :ids order by r.id, c.id")
+  List<ResourceRow> findRowsByIdIn(Collection<UUID> ids);
+
+  @Query("select r.id from Resource r where r.id in :ids")
+  List<UUID> findExistingIds(Collection<UUID> ids);
+
+  @Query(SELECT_ROWS + " where l.id in :locationIds order by r.id, c.id")
+  List<ResourceRow> findRowsByLocationIdIn(Collection<UUID> locationIds);
+
+  @QueryHints({
+    @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HINT_READ_ONLY, value = "true")
+  })
+  @Query(SELECT_ROWS + " order by r.id, c.id")
+  Stream<ResourceRow> streamAllRows();
+}
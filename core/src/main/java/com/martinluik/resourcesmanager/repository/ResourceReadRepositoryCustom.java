@@ -0,0 +1,23 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+public interface ResourceReadRepositoryCustom {
+
+  /**
+   * Returns the rows of at most {@code limit} resources matching the filter, ordered by resource
+   * id and starting after {@code afterId} when given.
+   */
+  List<ResourceRow> findPage(ResourceFilterDto filter, @Nullable UUID afterId, int limit);
+
+  /**
+   * Feeds the rows of every resource after {@code afterId}, or of all resources, to the consumer
+   * in resource id order. The rows come from a server-side cursor of a stateless session, so
+   * neither the result nor a persistence context builds up in memory. Must run in a transaction.
+   */
+  void scrollRows(@Nullable UUID afterId, int fetchSize, Consumer<ResourceRow> consumer);
+}
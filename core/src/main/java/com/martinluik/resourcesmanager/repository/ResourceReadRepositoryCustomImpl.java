@@ -0,0 +1,138 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.domain.Location;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.ScrollMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.jetbrains.annotations.Nullable;
+
+@RequiredArgsConstructor
+class ResourceReadRepositoryCustomImpl implements ResourceReadRepositoryCustom {
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<ResourceRow> findPage(ResourceFilterDto filter, @Nullable UUID afterId, int limit) {
+    var cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    var query = cb.createQuery(ResourceRow.class);
+    var resource = query.from(Resource.class);
+    var location = resource.<Resource, Location>join("location");
+    var characteristic =
+        resource.<Resource, Characteristic>join("characteristics", JoinType.LEFT);
+
+    // Filtering and limiting happen on resource ids so characteristic rows never split a resource
+    var pageIds = query.subquery(UUID.class);
+    var candidate = pageIds.from(Resource.class);
+    pageIds
+        .select(candidate.<UUID>get("id"))
+        .where(filterPredicates(cb, query, candidate, filter, afterId))
+        .orderBy(cb.asc(candidate.get("id")))
+        .fetch(limit);
+
+    query
+        .select(
+            cb.construct(
+                ResourceRow.class,
+                resource.get("id"),
+                resource.get("version"),
+                resource.get("type"),
+                resource.get("countryCode"),
+                location.get("id"),
+                location.get("streetAddress"),
+                location.get("city"),
+                location.get("postalCode"),
+                location.get("countryCode"),
+                characteristic.get("id"),
+                characteristic.get("version"),
+                characteristic.get("code"),
+                characteristic.get("type"),
+                characteristic.get("value")))
+        .where(resource.get("id").in(pageIds))
+        .orderBy(cb.asc(resource.get("id")), cb.asc(characteristic.get("id")));
+
+    return entityManager.createQuery(query).getResultList();
+  }
+
+  @Override
+  public void scrollRows(@Nullable UUID afterId, int fetchSize, Consumer<ResourceRow> consumer) {
+    var sessionBuilder =
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).withStatelessOptions();
+    var hql =
+        ResourceReadRepository.SELECT_ROWS
+            + (afterId == null ? "" : " where r.id > :afterId")
+            + " order by r.id, c.id";
+
+    // The stateless session does not see pending changes, so flush them as a query would
+    entityManager.flush();
+    // Borrowing the transaction's connection keeps auto-commit off, which PostgreSQL needs to
+    // honour the fetch size instead of sending the whole result at once
+    entityManager
+        .unwrap(Session.class)
+        .doWork(
+            connection -> {
+              try (var session = sessionBuilder.connection(connection).openStatelessSession()) {
+                var query =
+                    session.createSelectionQuery(hql, ResourceRow.class).setFetchSize(fetchSize);
+                if (afterId != null) {
+                  query.setParameter("afterId", afterId);
+                }
+                try (var rows = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                  while (rows.next()) {
+                    consumer.accept(rows.get());
+                  }
+                }
+              }
+            });
+  }
+
+  private static Predicate[] filterPredicates(
+      HibernateCriteriaBuilder cb,
+      JpaCriteriaQuery<?> query,
+      Root<Resource> resource,
+      ResourceFilterDto filter,
+      @Nullable UUID afterId) {
+    var predicates = new ArrayList<Predicate>();
+
+    if (afterId != null) {
+      predicates.add(cb.greaterThan(resource.<UUID>get("id"), afterId));
+    }
+    if (filter.getType() != null) {
+      predicates.add(cb.equal(resource.get("type"), filter.getType()));
+    }
+    if (filter.getCountryCode() != null) {
+      predicates.add(cb.equal(resource.get("countryCode"), filter.getCountryCode()));
+    }
+    if (filter.hasCharacteristicFilter()) {
+      var matching = query.subquery(Integer.class);
+      var characteristic = matching.from(Characteristic.class);
+      var characteristicPredicates = new ArrayList<Predicate>();
+      characteristicPredicates.add(cb.equal(characteristic.get("resource"), resource));
+      if (filter.getCharacteristicType() != null) {
+        characteristicPredicates.add(
+            cb.equal(characteristic.get("type"), filter.getCharacteristicType()));
+      }
+      if (filter.getCharacteristicValue() != null) {
+        characteristicPredicates.add(
+            cb.equal(characteristic.get("value"), filter.getCharacteristicValue()));
+      }
+      matching.select(cb.literal(1)).where(characteristicPredicates.toArray(Predicate[]::new));
+      predicates.add(cb.exists(matching));
+    }
+
+    return predicates.toArray(Predicate[]::new);
+  }
+}
@@ -1,9 +1,19 @@
 package com.martinluik.resourcesmanager.repository;
 
 import com.martinluik.resourcesmanager.domain.Resource;
+import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ResourceRepository extends JpaRepository<Resource, UUID> {}
+public interface ResourceRepository extends JpaRepository<Resource, UUID> {
+
+  // Loads through the second-level cache first and with a single join on a miss
+  @Override
+  @EntityGraph(attributePaths = {"location", "characteristics"})
+  Optional<Resource> findById(UUID id);
+
+  Optional<Resource> findByLocationId(UUID locationId);
+}
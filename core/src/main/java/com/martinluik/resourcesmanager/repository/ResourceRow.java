@@ -0,0 +1,51 @@
+package com.martinluik.resourcesmanager.repository;
+
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import java.util.ArrayList;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One row of a resource joined with its location and at most one of its characteristics. A
+ * resource without characteristics yields a single row with null characteristic columns.
+ */
+public record ResourceRow(
+    UUID id,
+    long version,
+    ResourceType type,
+    String countryCode,
+    UUID locationId,
+    String streetAddress,
+    String city,
+    String postalCode,
+    String locationCountryCode,
+    @Nullable UUID characteristicId,
+    @Nullable Long characteristicVersion,
+    @Nullable String characteristicCode,
+    @Nullable CharacteristicType characteristicType,
+    @Nullable String characteristicValue) {
+
+  public boolean hasCharacteristic() {
+    return characteristicId != null;
+  }
+
+  public ResourceDto toResourceDto() {
+    var location =
+        new LocationDto(locationId, streetAddress, city, postalCode, locationCountryCode);
+    return new ResourceDto(id, version, type, countryCode, location, new ArrayList<>());
+  }
+
+  public CharacteristicDto toCharacteristicDto() {
+    return new CharacteristicDto(
+        characteristicId,
+        id,
+        characteristicVersion,
+        characteristicCode,
+        characteristicType,
+        characteristicValue);
+  }
+}
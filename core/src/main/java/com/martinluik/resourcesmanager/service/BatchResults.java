@@ -0,0 +1,34 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+final class BatchResults {
+
+  private BatchResults() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Lays out the items fetched for a batch of IDs in request order. IDs that do not exist are
+   * reported as missing, existing IDs without items contribute nothing.
+   */
+  static <T> BatchGetResultDto<T> inRequestOrder(
+      Collection<UUID> requestedIds, Set<UUID> existingIds, Map<UUID, List<T>> itemsById) {
+    var items = new ArrayList<T>();
+    var missingIds = new ArrayList<UUID>();
+    for (var id : requestedIds) {
+      if (existingIds.contains(id)) {
+        items.addAll(itemsById.getOrDefault(id, List.of()));
+      } else {
+        missingIds.add(id);
+      }
+    }
+    return new BatchGetResultDto<>(items, missingIds);
+  }
+}
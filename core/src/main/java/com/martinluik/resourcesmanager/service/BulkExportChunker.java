@@ -0,0 +1,47 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.dto.BulkExportChunkDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Groups exported resources into chunks of a fixed size. A full chunk is only emitted once the
+ * next resource arrives, so the chunk emitted by {@link #finish()} is the one marked as last.
+ */
+final class BulkExportChunker implements Consumer<ResourceDto> {
+
+  private final UUID exportId;
+  private final int chunkSize;
+  private final Consumer<BulkExportChunkDto> sink;
+  private List<ResourceDto> resources;
+  private int sequence;
+
+  BulkExportChunker(
+      UUID exportId, int chunkSize, int firstSequence, Consumer<BulkExportChunkDto> sink) {
+    this.exportId = exportId;
+    this.chunkSize = chunkSize;
+    this.sink = sink;
+    this.resources = new ArrayList<>(chunkSize);
+    this.sequence = firstSequence;
+  }
+
+  @Override
+  public void accept(ResourceDto resource) {
+    if (resources.size() == chunkSize) {
+      emit(false);
+    }
+    resources.add(resource);
+  }
+
+  void finish() {
+    emit(true);
+  }
+
+  private void emit(boolean last) {
+    sink.accept(new BulkExportChunkDto(exportId, sequence++, last, resources));
+    resources = new ArrayList<>(chunkSize);
+  }
+}
@@ -0,0 +1,212 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.config.BulkExportProperties;
+import com.martinluik.resourcesmanager.domain.ExportJob;
+import com.martinluik.resourcesmanager.dto.BulkExportChunkDto;
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import com.martinluik.resourcesmanager.repository.ExportJobRepository;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs export jobs on a bounded pool of workers. A worker claims the job, scrolls the resources
+ * after the job's last acknowledged chunk in one read-only transaction, and commits the job's
+ * progress in a transaction of its own after every chunk, so a job interrupted by a restart or a
+ * crash is resumed from that chunk by the next sweep.
+ */
+@Slf4j
+@Component
+class BulkExportJobRunner implements SmartLifecycle {
+
+  private static final int MAX_ERROR_LENGTH = 1000;
+
+  private final ExportJobRepository exportJobRepository;
+  private final ResourceReadRepository resourceReadRepository;
+  private final KafkaService kafkaService;
+  private final BulkExportProperties properties;
+  private final TransactionTemplate readOnlyTransaction;
+  private final TransactionTemplate newTransaction;
+
+  @Nullable private ThreadPoolExecutor workers;
+  @Nullable private ScheduledExecutorService sweeper;
+
+  BulkExportJobRunner(
+      ExportJobRepository exportJobRepository,
+      ResourceReadRepository resourceReadRepository,
+      KafkaService kafkaService,
+      BulkExportProperties properties,
+      PlatformTransactionManager transactionManager) {
+    this.exportJobRepository = exportJobRepository;
+    this.resourceReadRepository = resourceReadRepository;
+    this.kafkaService = kafkaService;
+    this.properties = properties;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  // A job that finds no free worker stays queued in the database until the next sweep
+  void submit(UUID jobId) {
+    var pool = workers;
+    if (pool == null) {
+      log.info("Export job {} stays queued, the export workers are not running", jobId);
+      return;
+    }
+
+    try {
+      pool.execute(() -> run(jobId));
+    } catch (RejectedExecutionException e) {
+      log.info("Export job {} stays queued, all export workers are busy", jobId);
+    }
+  }
+
+  @Override
+  public void start() {
+    workers =
+        new ThreadPoolExecutor(
+            properties.parallelism(),
+            properties.parallelism(),
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            Thread.ofPlatform().name("bulk-export-", 0).factory());
+    sweeper =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("bulk-export-sweeper").factory());
+    sweeper.scheduleWithFixedDelay(
+        this::resumeQuietly,
+        0,
+        properties.resumeInterval().toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  // Interrupted jobs keep their progress and are resumed once they have gone stale
+  @Override
+  public void stop() {
+    if (sweeper != null) {
+      sweeper.shutdownNow();
+      sweeper = null;
+    }
+    if (workers != null) {
+      workers.shutdownNow();
+      workers = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return workers != null;
+  }
+
+  private void resumeQuietly() {
+    try {
+      var staleBefore = Instant.now().minus(properties.staleAfter());
+      exportJobRepository.findResumableIds(staleBefore).forEach(this::submit);
+    } catch (RuntimeException e) {
+      log.error("Failed to look up export jobs to resume", e);
+    }
+  }
+
+  private void run(UUID jobId) {
+    var job = newTransaction.execute(status -> claim(jobId));
+    if (job == null) {
+      return;
+    }
+
+    log.info("Export job {} started at chunk {}", jobId, job.getChunksSent());
+    try {
+      export(job);
+      finish(job, ExportJobStatus.COMPLETED, null);
+      log.info(
+          "Export job {} completed with {} resources in {} chunks",
+          jobId,
+          job.getResourcesExported(),
+          job.getChunksSent());
+    } catch (CancellationException e) {
+      log.info("Export job {} stopped after chunk {}", jobId, job.getChunksSent());
+    } catch (RuntimeException e) {
+      log.error("Export job {} failed", jobId, e);
+      finish(job, ExportJobStatus.FAILED, String.valueOf(e.getMessage()));
+    }
+  }
+
+  @Nullable
+  private ExportJob claim(UUID jobId) {
+    var now = Instant.now();
+    if (exportJobRepository.claim(jobId, now, now.minus(properties.staleAfter())) == 0) {
+      return null;
+    }
+    return exportJobRepository.findById(jobId).orElse(null);
+  }
+
+  private void export(ExportJob job) {
+    var chunker =
+        new BulkExportChunker(
+            job.getId(),
+            properties.chunkSize(),
+            job.getChunksSent(),
+            chunk -> sendChunk(job, chunk));
+    var assembler = new ResourceRowAssembler(chunker);
+
+    readOnlyTransaction.executeWithoutResult(
+        status -> {
+          resourceReadRepository.scrollRows(
+              job.getLastResourceId(), properties.fetchSize(), assembler::accept);
+          assembler.finish();
+          chunker.finish();
+        });
+  }
+
+  // Progress is only recorded once Kafka has acknowledged the chunk
+  private void sendChunk(ExportJob job, BulkExportChunkDto chunk) {
+    kafkaService.sendBulkExportChunk(chunk).join();
+
+    var resources = chunk.getResources();
+    job.setChunksSent(chunk.getSequence() + 1);
+    job.setResourcesExported(job.getResourcesExported() + resources.size());
+    if (!resources.isEmpty()) {
+      job.setLastResourceId(resources.getLast().getId());
+    }
+
+    Integer updated =
+        newTransaction.execute(
+            status ->
+                exportJobRepository.recordProgress(
+                    job.getId(),
+                    job.getAttempt(),
+                    job.getChunksSent(),
+                    job.getResourcesExported(),
+                    job.getLastResourceId(),
+                    Instant.now()));
+    if (updated == null || updated == 0) {
+      throw new CancellationException("Export job " + job.getId() + " is no longer running");
+    }
+  }
+
+  private void finish(ExportJob job, ExportJobStatus status, @Nullable String error) {
+    var truncatedError =
+        error == null || error.length() <= MAX_ERROR_LENGTH
+            ? error
+            : error.substring(0, MAX_ERROR_LENGTH);
+    newTransaction.executeWithoutResult(
+        transactionStatus ->
+            exportJobRepository.finish(
+                job.getId(), job.getAttempt(), status, truncatedError, Instant.now()));
+  }
+}
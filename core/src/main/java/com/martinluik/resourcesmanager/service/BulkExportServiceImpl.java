@@ -0,0 +1,91 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.domain.ExportJob;
+import com.martinluik.resourcesmanager.dto.ExportJobDto;
+import com.martinluik.resourcesmanager.enums.ExportJobStatus;
+import com.martinluik.resourcesmanager.exception.ExportJobNotFoundException;
+import com.martinluik.resourcesmanager.repository.ExportJobRepository;
+import com.martinluik.resourcesmanager.repository.ResourceRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+@Service
+@RequiredArgsConstructor
+public class BulkExportServiceImpl implements BulkExportService {
+
+  private final ExportJobRepository exportJobRepository;
+  private final ResourceRepository resourceRepository;
+  private final BulkExportJobRunner bulkExportJobRunner;
+
+  // Not transactional, the job has to be committed before a worker can claim it
+  @Override
+  public ExportJobDto startExport() {
+    var now = Instant.now();
+    var job =
+        exportJobRepository.save(
+            ExportJob.builder()
+                .status(ExportJobStatus.QUEUED)
+                .totalResources(resourceRepository.count())
+                .createdAt(now)
+                .heartbeatAt(now)
+                .build());
+
+    bulkExportJobRunner.submit(job.getId());
+
+    return toDto(job, now);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public ExportJobDto getExportJob(UUID id) {
+    Assert.notNull(id, "Export job ID cannot be null");
+
+    return exportJobRepository
+        .findById(id)
+        .map(job -> toDto(job, Instant.now()))
+        .orElseThrow(() -> new ExportJobNotFoundException(id));
+  }
+
+  @Override
+  @Transactional
+  public ExportJobDto cancelExport(UUID id) {
+    Assert.notNull(id, "Export job ID cannot be null");
+
+    exportJobRepository.cancel(id, Instant.now());
+    return getExportJob(id);
+  }
+
+  private static ExportJobDto toDto(ExportJob job, Instant now) {
+    var dto =
+        ExportJobDto.builder()
+            .id(job.getId())
+            .status(job.getStatus())
+            .totalResources(job.getTotalResources())
+            .resourcesExported(job.getResourcesExported())
+            .chunksSent(job.getChunksSent())
+            .createdAt(job.getCreatedAt())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .error(job.getError());
+
+    if (job.getStartedAt() != null && job.getResourcesExported() > 0) {
+      var end = job.getFinishedAt() != null ? job.getFinishedAt() : now;
+      var seconds = Duration.between(job.getStartedAt(), end).toMillis() / 1000.0;
+      if (seconds > 0) {
+        var resourcesPerSecond = job.getResourcesExported() / seconds;
+        dto.resourcesPerSecond(resourcesPerSecond);
+        if (job.getStatus() == ExportJobStatus.RUNNING) {
+          var remaining = Math.max(0, job.getTotalResources() - job.getResourcesExported());
+          dto.etaSeconds(Math.round(remaining / resourcesPerSecond));
+        }
+      }
+    }
+
+    return dto.build();
+  }
+}
@@ -1,14 +1,32 @@
 package com.martinluik.resourcesmanager.service;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_BATCH_GET_SIZE;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_PAGE_SIZE;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
 import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
 import com.martinluik.resourcesmanager.exception.CharacteristicNotFoundException;
+import com.martinluik.resourcesmanager.exception.PreconditionFailedException;
 import com.martinluik.resourcesmanager.exception.ResourceNotFoundException;
 import com.martinluik.resourcesmanager.mapper.CharacteristicMapper;
+import com.martinluik.resourcesmanager.pagination.CursorCodec;
+import com.martinluik.resourcesmanager.repository.CharacteristicReadRepository;
 import com.martinluik.resourcesmanager.repository.CharacteristicRepository;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
 import com.martinluik.resourcesmanager.repository.ResourceRepository;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -18,13 +36,29 @@ import org.springframework.util.Assert;
 public class CharacteristicServiceImpl implements CharacteristicService {
 
   private final CharacteristicRepository characteristicRepository;
+  private final CharacteristicReadRepository characteristicReadRepository;
   private final ResourceRepository resourceRepository;
+  private final ResourceReadRepository resourceReadRepository;
   private final CharacteristicMapper characteristicMapper;
+  private final ResourceCacheEvictor resourceCacheEvictor;
+  private final KafkaService kafkaService;
 
   @Override
   @Transactional(readOnly = true)
-  public List<CharacteristicDto> getAllCharacteristics() {
-    return characteristicRepository.findAll().stream().map(characteristicMapper::toDto).toList();
+  public CursorPageDto<CharacteristicDto> getAllCharacteristics(
+      @Nullable String cursor, int limit) {
+    Assert.isTrue(limit > 0, "Page size must be positive");
+
+    var pageSize = Math.min(limit, MAX_PAGE_SIZE);
+    var afterId = CursorCodec.decode(cursor);
+    var fetchLimit = Limit.of(pageSize + 1);
+
+    var characteristics =
+        afterId == null
+            ? characteristicReadRepository.findPage(fetchLimit)
+            : characteristicReadRepository.findPageAfter(afterId, fetchLimit);
+
+    return CursorPageDto.fromSlice(characteristics, pageSize, CharacteristicDto::getId);
   }
 
   @Override
@@ -32,9 +66,18 @@ public class CharacteristicServiceImpl implements CharacteristicService {
   public CharacteristicDto getCharacteristic(UUID id) {
     Assert.notNull(id, "Characteristic ID cannot be null");
 
-    return characteristicRepository
-        .findById(id)
-        .map(characteristicMapper::toDto)
+    return characteristicReadRepository
+        .findDtoById(id)
+        .orElseThrow(() -> new CharacteristicNotFoundException(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public VersionDto getCharacteristicVersion(UUID id) {
+    Assert.notNull(id, "Characteristic ID cannot be null");
+
+    return characteristicReadRepository
+        .findVersionById(id)
         .orElseThrow(() -> new CharacteristicNotFoundException(id));
   }
 
@@ -52,28 +95,36 @@ public class CharacteristicServiceImpl implements CharacteristicService {
     var characteristic = characteristicMapper.toEntity(dto);
     characteristic.setResource(resource);
 
-    var savedCharacteristic = characteristicRepository.save(characteristic);
+    resource.markModified();
+    resource.markSnapshotOfNextVersion();
+    resourceCacheEvictor.evictCharacteristics(resource);
+
+    var savedCharacteristic = characteristicRepository.saveAndFlush(characteristic);
+    publishResource(resource);
 
     return characteristicMapper.toDto(savedCharacteristic);
   }
 
   @Override
   @Transactional
-  public CharacteristicDto updateCharacteristic(CharacteristicDto dto) {
+  public CharacteristicDto updateCharacteristic(
+      CharacteristicDto dto, @Nullable Long expectedVersion) {
     Assert.notNull(dto, "Characteristic DTO cannot be null");
     Assert.notNull(dto.getId(), "Characteristic ID cannot be null for update");
 
-    var existingCharacteristic =
-        characteristicRepository
-            .findById(dto.getId())
-            .orElseThrow(() -> new CharacteristicNotFoundException(dto.getId()));
-
-    var characteristic = characteristicMapper.toEntity(dto);
-    characteristic.setResource(existingCharacteristic.getResource());
+    var characteristic = findForUpdate(dto.getId(), expectedVersion);
+    return applyUpdate(characteristic, dto);
+  }
 
-    var updatedCharacteristic = characteristicRepository.save(characteristic);
+  @Override
+  @Transactional
+  public CharacteristicDto patchCharacteristic(
+      UUID id, UnaryOperator<CharacteristicDto> patch, @Nullable Long expectedVersion) {
+    Assert.notNull(id, "Characteristic ID cannot be null");
+    Assert.notNull(patch, "Characteristic patch cannot be null");
 
-    return characteristicMapper.toDto(updatedCharacteristic);
+    var characteristic = findForUpdate(id, expectedVersion);
+    return applyUpdate(characteristic, patch.apply(characteristicMapper.toDto(characteristic)));
   }
 
   @Override
@@ -81,11 +132,18 @@ public class CharacteristicServiceImpl implements CharacteristicService {
   public void deleteCharacteristic(UUID id) {
     Assert.notNull(id, "Characteristic ID cannot be null");
 
-    if (!characteristicRepository.existsById(id)) {
-      throw new CharacteristicNotFoundException(id);
-    }
+    var characteristic =
+        characteristicRepository
+            .findById(id)
+            .orElseThrow(() -> new CharacteristicNotFoundException(id));
+
+    characteristicRepository.delete(characteristic);
+    characteristic.getResource().markModified();
+    characteristic.getResource().markSnapshotOfNextVersion();
+    resourceCacheEvictor.evictCharacteristics(characteristic.getResource());
 
-    characteristicRepository.deleteById(id);
+    characteristicRepository.flush();
+    publishResource(characteristic.getResource());
   }
 
   @Override
@@ -97,8 +155,62 @@ public class CharacteristicServiceImpl implements CharacteristicService {
       throw new ResourceNotFoundException(resourceId);
     }
 
-    return characteristicRepository.findByResourceId(resourceId).stream()
-        .map(characteristicMapper::toDto)
-        .toList();
+    return characteristicReadRepository.findDtosByResourceId(resourceId);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public BatchGetResultDto<CharacteristicDto> getCharacteristicsByResourceIds(
+      List<UUID> resourceIds) {
+    Assert.notEmpty(resourceIds, "Resource IDs cannot be empty");
+    Assert.noNullElements(resourceIds, "Resource IDs cannot contain null");
+    Assert.isTrue(
+        resourceIds.size() <= MAX_BATCH_GET_SIZE,
+        "At most " + MAX_BATCH_GET_SIZE + " resource IDs can be requested at once");
+
+    var requestedIds = new LinkedHashSet<>(resourceIds);
+    var existingIds = new HashSet<>(resourceReadRepository.findExistingIds(requestedIds));
+    var characteristicsByResourceId =
+        characteristicReadRepository.findDtosByResourceIdIn(requestedIds).stream()
+            .collect(Collectors.groupingBy(CharacteristicDto::getResourceId));
+
+    return BatchResults.inRequestOrder(requestedIds, existingIds, characteristicsByResourceId);
+  }
+
+  private Characteristic findForUpdate(UUID id, @Nullable Long expectedVersion) {
+    var characteristic =
+        characteristicRepository
+            .findById(id)
+            .orElseThrow(() -> new CharacteristicNotFoundException(id));
+
+    if (expectedVersion != null && !expectedVersion.equals(characteristic.getVersion())) {
+      throw new PreconditionFailedException(
+          "Characteristic %s is at version %d, not %d"
+              .formatted(id, characteristic.getVersion(), expectedVersion));
+    }
+    return characteristic;
+  }
+
+  private CharacteristicDto applyUpdate(Characteristic characteristic, CharacteristicDto dto) {
+    characteristicMapper.updateEntity(dto, characteristic);
+    characteristic.getResource().markModified();
+    characteristic.getResource().markSnapshotOfNextVersion();
+    resourceCacheEvictor.evictCharacteristics(characteristic.getResource());
+
+    // Flushing bumps the version before it is mapped into the response and its ETag
+    var updatedCharacteristic = characteristicRepository.saveAndFlush(characteristic);
+    publishResource(updatedCharacteristic.getResource());
+
+    return characteristicMapper.toDto(updatedCharacteristic);
+  }
+
+  // The flushed change bumped the resource's version, so it is read back and published in full
+  // like a location change; a delta would have no published version to apply to
+  private void publishResource(Resource resource) {
+    var resourceDto =
+        ResourceRowAssembler.assemble(
+                resourceReadRepository.findRowsByIdIn(List.of(resource.getId())))
+            .getFirst();
+    kafkaService.sendResourceUpdate(resourceDto);
   }
 }
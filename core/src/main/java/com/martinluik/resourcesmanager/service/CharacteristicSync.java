@@ -0,0 +1,114 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.exception.CharacteristicNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+final class CharacteristicSync {
+
+  private CharacteristicSync() {
+    // Utility class - prevent instantiation
+  }
+
+  /**
+   * Brings the characteristics of a managed resource in line with the requested ones, touching only
+   * rows that differ. A requested characteristic matches an existing one by ID, or by code and type
+   * when it has no ID; unmatched requests are inserted and unmatched existing rows are removed.
+   *
+   * @return whether any characteristic was inserted, changed or removed
+   * @throws IllegalArgumentException when the same characteristic ID is requested twice
+   */
+  static boolean apply(Resource resource, List<CharacteristicDto> requested) {
+    if (resource.getCharacteristics() == null) {
+      resource.setCharacteristics(new ArrayList<>());
+    }
+    var characteristics = resource.getCharacteristics();
+
+    var unmatched = new LinkedHashMap<UUID, Characteristic>();
+    characteristics.forEach(
+        characteristic -> unmatched.put(characteristic.getId(), characteristic));
+
+    var requestedIds = new HashSet<UUID>();
+    for (var dto : requested) {
+      if (dto.getId() != null && !requestedIds.add(dto.getId())) {
+        throw new IllegalArgumentException(
+            "Characteristic " + dto.getId() + " is requested more than once");
+      }
+    }
+
+    // Explicit IDs are matched first so that a code and type match cannot claim their rows
+    var matches = new IdentityHashMap<CharacteristicDto, Characteristic>();
+    for (var dto : requested) {
+      if (dto.getId() != null) {
+        var match = unmatched.remove(dto.getId());
+        if (match == null) {
+          throw new CharacteristicNotFoundException(dto.getId());
+        }
+        matches.put(dto, match);
+      }
+    }
+
+    var unmatchedByKey = new HashMap<Key, ArrayDeque<Characteristic>>();
+    unmatched
+        .values()
+        .forEach(
+            characteristic ->
+                unmatchedByKey
+                    .computeIfAbsent(Key.of(characteristic), key -> new ArrayDeque<>())
+                    .add(characteristic));
+
+    var changed = false;
+    for (var dto : requested) {
+      var match = matches.get(dto);
+      if (match == null && dto.getId() == null) {
+        var candidates = unmatchedByKey.get(new Key(dto.getCode(), dto.getType()));
+        match = candidates == null ? null : candidates.poll();
+      }
+
+      if (match == null) {
+        var characteristic = new Characteristic();
+        copy(dto, characteristic);
+        characteristic.setResource(resource);
+        characteristics.add(characteristic);
+        changed = true;
+      } else {
+        unmatched.remove(match.getId());
+        changed |= copy(dto, match);
+      }
+    }
+
+    // Orphan removal deletes what is left
+    characteristics.removeAll(unmatched.values());
+    return changed || !unmatched.isEmpty();
+  }
+
+  private static boolean copy(CharacteristicDto dto, Characteristic characteristic) {
+    if (Objects.equals(dto.getCode(), characteristic.getCode())
+        && dto.getType() == characteristic.getType()
+        && Objects.equals(dto.getValue(), characteristic.getValue())) {
+      return false;
+    }
+    characteristic.setCode(dto.getCode());
+    characteristic.setType(dto.getType());
+    characteristic.setValue(dto.getValue());
+    return true;
+  }
+
+  private record Key(String code, CharacteristicType type) {
+
+    static Key of(Characteristic characteristic) {
+      return new Key(characteristic.getCode(), characteristic.getType());
+    }
+  }
+}
@@ -0,0 +1,156 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ImportFormat;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Parses an import row by row and hands each row to the staging writer.
+ *
+ * <p>NDJSON holds one resource as in the REST API per line. CSV holds one resource per record
+ * with a header naming the {@link #CSV_COLUMNS}, the characteristics column lists {@code
+ * CODE:TYPE:value} entries separated by semicolons.
+ */
+class ImportRowReader {
+
+  static final List<String> CSV_COLUMNS =
+      List.of(
+          "type",
+          "countryCode",
+          "streetAddress",
+          "city",
+          "postalCode",
+          "locationCountryCode",
+          "characteristics");
+
+  private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+  private final ObjectReader resourceReader;
+
+  ImportRowReader(ObjectMapper objectMapper) {
+    this.resourceReader = objectMapper.readerFor(ResourceDto.class);
+  }
+
+  void read(BufferedReader input, ImportFormat format, ImportStagingWriter staging)
+      throws IOException {
+    switch (format) {
+      case NDJSON -> readNdjson(input, staging);
+      case CSV -> readCsv(input, staging);
+    }
+  }
+
+  private void readNdjson(BufferedReader input, ImportStagingWriter staging) throws IOException {
+    String line;
+    while ((line = input.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+
+      ResourceDto dto;
+      try {
+        dto = resourceReader.readValue(line);
+      } catch (JsonProcessingException e) {
+        staging.reject(e.getOriginalMessage());
+        continue;
+      }
+      staging.accept(dto);
+    }
+  }
+
+  private void readCsv(BufferedReader input, ImportStagingWriter staging) throws IOException {
+    try (var records =
+        CSV_MAPPER
+            .readerForArrayOf(String.class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .<String[]>readValues(input)) {
+      if (!records.hasNextValue()) {
+        return;
+      }
+
+      var header = Arrays.asList(records.nextValue());
+      var positions = CSV_COLUMNS.stream().mapToInt(header::indexOf).toArray();
+      if (Arrays.stream(positions).anyMatch(position -> position < 0)) {
+        throw new IllegalArgumentException(
+            "CSV import header must name the columns " + CSV_COLUMNS + ", got " + header);
+      }
+
+      while (records.hasNextValue()) {
+        var record = records.nextValue();
+        var columns = new String[positions.length];
+        for (var i = 0; i < positions.length; i++) {
+          columns[i] = positions[i] < record.length ? emptyToNull(record[positions[i]]) : null;
+        }
+
+        ResourceDto dto;
+        try {
+          dto = fromCsvColumns(columns);
+        } catch (IllegalArgumentException e) {
+          staging.reject(e.getMessage());
+          continue;
+        }
+        staging.accept(dto);
+      }
+    }
+  }
+
+  private static ResourceDto fromCsvColumns(String[] columns) {
+    var location =
+        LocationDto.builder()
+            .streetAddress(columns[2])
+            .city(columns[3])
+            .postalCode(columns[4])
+            .countryCode(columns[5])
+            .build();
+    return ResourceDto.builder()
+        .type(columns[0] == null ? null : parse(ResourceType.class, "type", columns[0]))
+        .countryCode(columns[1])
+        .location(location)
+        .characteristics(columns[6] == null ? null : parseCharacteristics(columns[6]))
+        .build();
+  }
+
+  private static List<CharacteristicDto> parseCharacteristics(String column) {
+    var characteristics = new ArrayList<CharacteristicDto>();
+    for (var entry : column.split(";")) {
+      var parts = entry.split(":", 3);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException(
+            "characteristics: entries must have the form CODE:TYPE:value, got '" + entry + "'");
+      }
+      characteristics.add(
+          CharacteristicDto.builder()
+              .code(parts[0])
+              .type(parse(CharacteristicType.class, "characteristics", parts[1]))
+              .value(parts[2])
+              .build());
+    }
+    return characteristics;
+  }
+
+  private static <E extends Enum<E>> E parse(Class<E> type, String column, String value) {
+    try {
+      return Enum.valueOf(type, value);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          column + ": unknown " + type.getSimpleName() + " '" + value + "'", e);
+    }
+  }
+
+  private static @Nullable String emptyToNull(String value) {
+    return value.isEmpty() ? null : value;
+  }
+}
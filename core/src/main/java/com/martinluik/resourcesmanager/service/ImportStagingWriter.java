@@ -0,0 +1,141 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.config.ResourceImportProperties;
+import com.martinluik.resourcesmanager.dto.BulkItemResultDto;
+import com.martinluik.resourcesmanager.dto.ImportReportDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import jakarta.validation.Validator;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validates imported resources with the DTO rules and writes the valid ones to the staging table
+ * as rows of a COPY in PostgreSQL's text format. Every row read gets the next index, whether it
+ * ends up staged or rejected.
+ */
+@Slf4j
+class ImportStagingWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final Writer writer;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ResourceImportProperties properties;
+  private final long startedAt = System.nanoTime();
+
+  private final List<BulkItemResultDto> rejects = new ArrayList<>();
+  private int rowsRead;
+  private int rowsRejected;
+
+  ImportStagingWriter(
+      OutputStream copyStream,
+      ObjectMapper objectMapper,
+      Validator validator,
+      ResourceImportProperties properties) {
+    this.writer =
+        new BufferedWriter(
+            new OutputStreamWriter(copyStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.properties = properties;
+  }
+
+  void accept(ResourceDto dto) throws IOException {
+    var index = nextIndex();
+    var violations = validator.validate(dto);
+    if (!violations.isEmpty()) {
+      reject(
+          index,
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+              .sorted()
+              .toList());
+      return;
+    }
+
+    var location = dto.getLocation();
+    var characteristics =
+        dto.getCharacteristics().stream()
+            .map(c -> new StagedCharacteristic(c.getCode(), c.getType(), c.getValue()))
+            .toList();
+    writer.write(Integer.toString(index));
+    writeField(dto.getType().name());
+    writeField(dto.getCountryCode());
+    writeField(location.getStreetAddress());
+    writeField(location.getCity());
+    writeField(location.getPostalCode());
+    writeField(location.getCountryCode());
+    writeField(objectMapper.writeValueAsString(characteristics));
+    writer.write('\n');
+  }
+
+  void reject(String error) {
+    reject(nextIndex(), List.of(error));
+  }
+
+  void reject(int index, List<String> errors) {
+    rowsRejected++;
+    if (rejects.size() < properties.maxReportedRejects()) {
+      rejects.add(BulkItemResultDto.rejected(index, errors));
+    }
+  }
+
+  ImportReportDto report(int rowsImported) {
+    return ImportReportDto.builder()
+        .rowsRead(rowsRead)
+        .rowsImported(rowsImported)
+        .rowsRejected(rowsRejected)
+        .rejects(
+            rejects.stream().sorted(Comparator.comparingInt(BulkItemResultDto::getIndex)).toList())
+        .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+        .build();
+  }
+
+  // Ends the COPY, so the staged rows become visible to the merge
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private int nextIndex() {
+    if (rowsRead > 0 && rowsRead % properties.progressInterval() == 0) {
+      var elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+      log.info(
+          "Resource import progress: {} rows read, {} rejected, {} rows/s",
+          rowsRead,
+          rowsRejected,
+          rowsRead * 1000L / elapsedMillis);
+    }
+    return rowsRead++;
+  }
+
+  private void writeField(String value) throws IOException {
+    writer.write('\t');
+    for (var i = 0; i < value.length(); i++) {
+      var ch = value.charAt(i);
+      switch (ch) {
+        case '\\' -> writer.write("\\\\");
+        case '\t' -> writer.write("\\t");
+        case '\n' -> writer.write("\\n");
+        case '\r' -> writer.write("\\r");
+        default -> writer.write(ch);
+      }
+    }
+  }
+
+  // Unpacked with jsonb_to_recordset when the characteristics are merged
+  private record StagedCharacteristic(String code, CharacteristicType type, String value) {}
+}
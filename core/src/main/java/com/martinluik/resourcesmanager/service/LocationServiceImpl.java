@@ -1,12 +1,33 @@
 package com.martinluik.resourcesmanager.service;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_PAGE_SIZE;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_SEARCH_LIMIT;
+import static java.util.function.Function.identity;
+
+import com.martinluik.resourcesmanager.domain.Location;
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
 import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.LocationSearchResultDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
 import com.martinluik.resourcesmanager.exception.LocationNotFoundException;
+import com.martinluik.resourcesmanager.exception.PreconditionFailedException;
 import com.martinluik.resourcesmanager.mapper.LocationMapper;
+import com.martinluik.resourcesmanager.mapper.ResourceMapper;
+import com.martinluik.resourcesmanager.pagination.CursorCodec;
+import com.martinluik.resourcesmanager.repository.LocationMatch;
+import com.martinluik.resourcesmanager.repository.LocationReadRepository;
 import com.martinluik.resourcesmanager.repository.LocationRepository;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import com.martinluik.resourcesmanager.repository.ResourceRepository;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -16,12 +37,29 @@ import org.springframework.util.Assert;
 public class LocationServiceImpl implements LocationService {
 
   private final LocationRepository locationRepository;
+  private final LocationReadRepository locationReadRepository;
+  private final ResourceRepository resourceRepository;
+  private final ResourceReadRepository resourceReadRepository;
   private final LocationMapper locationMapper;
+  private final ResourceMapper resourceMapper;
+  private final ResourceCacheEvictor resourceCacheEvictor;
+  private final KafkaService kafkaService;
 
   @Override
   @Transactional(readOnly = true)
-  public List<LocationDto> getAllLocations() {
-    return locationRepository.findAll().stream().map(locationMapper::toDto).toList();
+  public CursorPageDto<LocationDto> getAllLocations(@Nullable String cursor, int limit) {
+    Assert.isTrue(limit > 0, "Page size must be positive");
+
+    var pageSize = Math.min(limit, MAX_PAGE_SIZE);
+    var afterId = CursorCodec.decode(cursor);
+    var fetchLimit = Limit.of(pageSize + 1);
+
+    var locations =
+        afterId == null
+            ? locationReadRepository.findPage(fetchLimit)
+            : locationReadRepository.findPageAfter(afterId, fetchLimit);
+
+    return CursorPageDto.fromSlice(locations, pageSize, LocationDto::getId);
   }
 
   @Override
@@ -29,12 +67,42 @@ public class LocationServiceImpl implements LocationService {
   public LocationDto getLocation(UUID id) {
     Assert.notNull(id, "Location ID cannot be null");
 
-    return locationRepository
-        .findById(id)
-        .map(locationMapper::toDto)
+    return locationReadRepository
+        .findDtoById(id)
         .orElseThrow(() -> new LocationNotFoundException(id));
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public VersionDto getLocationVersion(UUID id) {
+    Assert.notNull(id, "Location ID cannot be null");
+
+    return locationReadRepository
+        .findVersionById(id)
+        .orElseThrow(() -> new LocationNotFoundException(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<LocationSearchResultDto> searchLocations(
+      String query, int limit, boolean includeResource) {
+    Assert.hasText(query, "Search query cannot be blank");
+    Assert.isTrue(limit > 0, "Search limit must be positive");
+
+    var matches = locationReadRepository.search(query.strip(), Math.min(limit, MAX_SEARCH_LIMIT));
+    var resourcesByLocationId =
+        includeResource ? findResourcesByLocationId(matches) : Map.<UUID, ResourceDto>of();
+
+    return matches.stream()
+        .map(
+            match ->
+                new LocationSearchResultDto(
+                    match.toLocationDto(),
+                    match.getSimilarity(),
+                    resourcesByLocationId.get(match.getId())))
+        .toList();
+  }
+
   @Override
   @Transactional
   public LocationDto createLocation(LocationDto dto) {
@@ -52,14 +120,19 @@ public class LocationServiceImpl implements LocationService {
     Assert.notNull(dto, "Location DTO cannot be null");
     Assert.notNull(dto.getId(), "Location ID cannot be null for update");
 
-    if (!locationRepository.existsById(dto.getId())) {
-      throw new LocationNotFoundException(dto.getId());
-    }
+    var location = findForUpdate(dto.getId(), null);
+    return applyUpdate(location, dto);
+  }
 
-    var location = locationMapper.toEntity(dto);
-    var updatedLocation = locationRepository.save(location);
+  @Override
+  @Transactional
+  public LocationDto patchLocation(
+      UUID id, UnaryOperator<LocationDto> patch, @Nullable Long expectedVersion) {
+    Assert.notNull(id, "Location ID cannot be null");
+    Assert.notNull(patch, "Location patch cannot be null");
 
-    return locationMapper.toDto(updatedLocation);
+    var location = findForUpdate(id, expectedVersion);
+    return applyUpdate(location, patch.apply(locationMapper.toDto(location)));
   }
 
   @Override
@@ -71,6 +144,59 @@ public class LocationServiceImpl implements LocationService {
       throw new LocationNotFoundException(id);
     }
 
-    locationRepository.deleteById(id);
+    // Deleting the owning resource through Hibernate cascades to the location and keeps the
+    // second-level cache consistent, unlike the database ON DELETE CASCADE
+    resourceRepository
+        .findByLocationId(id)
+        .ifPresentOrElse(
+            resource -> {
+              resourceRepository.delete(resource);
+              resourceCacheEvictor.evictDeletedResponse(resource.getId());
+              kafkaService.sendResourceDeletion(resource.getId());
+            },
+            () -> locationRepository.deleteById(id));
+  }
+
+  private Location findForUpdate(UUID id, @Nullable Long expectedVersion) {
+    var location =
+        locationRepository.findById(id).orElseThrow(() -> new LocationNotFoundException(id));
+
+    if (expectedVersion != null && !expectedVersion.equals(location.getVersion())) {
+      throw new PreconditionFailedException(
+          "Location %s is at version %d, not %d"
+              .formatted(id, location.getVersion(), expectedVersion));
+    }
+    return location;
+  }
+
+  private LocationDto applyUpdate(Location location, LocationDto dto) {
+    if (!locationMapper.updateEntityIfChanged(dto, location)) {
+      return locationMapper.toDto(location);
+    }
+
+    resourceRepository
+        .findByLocationId(location.getId())
+        .ifPresent(
+            resource -> {
+              resource.markModified();
+              resource.markSnapshotOfNextVersion();
+              // Flushing bumps the version before it is mapped into the event
+              var updatedResource = resourceRepository.saveAndFlush(resource);
+              resourceCacheEvictor.evictResponse(updatedResource);
+              kafkaService.sendResourceUpdate(resourceMapper.toDto(updatedResource));
+            });
+
+    return locationMapper.toDto(location);
+  }
+
+  private Map<UUID, ResourceDto> findResourcesByLocationId(List<LocationMatch> matches) {
+    if (matches.isEmpty()) {
+      return Map.of();
+    }
+
+    var locationIds = matches.stream().map(LocationMatch::getId).toList();
+    return ResourceRowAssembler.assemble(resourceReadRepository.findRowsByLocationIdIn(locationIds))
+        .stream()
+        .collect(Collectors.toMap(resource -> resource.getLocation().getId(), identity()));
   }
 }
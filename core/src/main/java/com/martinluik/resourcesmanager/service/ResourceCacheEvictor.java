@@ -0,0 +1,168 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.cache.ResourceResponseCache;
+import com.martinluik.resourcesmanager.domain.Characteristic;
+import com.martinluik.resourcesmanager.domain.Location;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts cached state of a resource that Hibernate cannot invalidate on its own: the serialized
+ * response and the inverse {@code Resource.characteristics} collection after a characteristic is
+ * saved directly. Changes published by other nodes are applied a batch at a time through {@link
+ * #remoteChanges}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceCacheEvictor {
+
+  private static final String CHARACTERISTICS_ROLE = Resource.class.getName() + ".characteristics";
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final ResourceResponseCache resourceResponseCache;
+
+  /**
+   * Evicts the response of a resource the transaction updates. After commit the response cache also
+   * refuses bodies older than the flushed version, without waiting for the resource-updates event.
+   */
+  public void evictResponse(Resource resource) {
+    var resourceId = resource.getId();
+    evictNowAndAfterCommit(
+        () -> resourceResponseCache.evict(resourceId),
+        () -> resourceResponseCache.invalidate(resourceId, resource.getVersion()));
+  }
+
+  /**
+   * Evicts the characteristics of a resource whose version the transaction bumps. After commit the
+   * response cache also refuses bodies older than the flushed version.
+   */
+  public void evictCharacteristics(Resource resource) {
+    var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    var resourceId = resource.getId();
+    evictNowAndAfterCommit(
+        () -> {
+          cache.evictCollectionData(CHARACTERISTICS_ROLE, resourceId);
+          resourceResponseCache.evict(resourceId);
+        },
+        () -> {
+          cache.evictCollectionData(CHARACTERISTICS_ROLE, resourceId);
+          resourceResponseCache.invalidate(resourceId, resource.getVersion());
+        });
+  }
+
+  /** Evicts the response of a resource the transaction deletes, refusing any later put of it. */
+  public void evictDeletedResponse(UUID resourceId) {
+    evictNowAndAfterCommit(
+        () -> resourceResponseCache.evict(resourceId),
+        () -> resourceResponseCache.invalidate(resourceId, Long.MAX_VALUE));
+  }
+
+  /** Starts collecting the changes of a batch published by other nodes. */
+  public RemoteChanges remoteChanges() {
+    return new RemoteChanges();
+  }
+
+  /**
+   * Cached parts made stale by a batch of published changes. Each entity, collection and response
+   * is evicted once however many changes of the batch touch it.
+   */
+  public final class RemoteChanges {
+
+    private final Set<UUID> resourceIds = new HashSet<>();
+    private final Set<UUID> characteristicsOwnerIds = new HashSet<>();
+    private final Set<UUID> locationIds = new HashSet<>();
+    private final Set<UUID> characteristicIds = new HashSet<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final Set<UUID> unversionedIds = new HashSet<>();
+
+    private RemoteChanges() {}
+
+    /** Every locally cached part of the resource is older than the given update. */
+    public void updated(ResourceDto resource) {
+      resourceIds.add(resource.getId());
+      characteristicsOwnerIds.add(resource.getId());
+      if (resource.getLocation() != null && resource.getLocation().getId() != null) {
+        locationIds.add(resource.getLocation().getId());
+      }
+      if (resource.getCharacteristics() != null) {
+        resource.getCharacteristics().stream()
+            .map(CharacteristicDto::getId)
+            .filter(Objects::nonNull)
+            .forEach(characteristicIds::add);
+      }
+      if (resource.getVersion() != null) {
+        versions.merge(resource.getId(), resource.getVersion(), Math::max);
+      } else {
+        unversionedIds.add(resource.getId());
+      }
+    }
+
+    /** The cached parts of the resource that the delta changed are stale. */
+    public void updated(ResourceDeltaDto delta) {
+      resourceIds.add(delta.getId());
+      if (delta.getAddedCharacteristics() != null || delta.getRemovedCharacteristicIds() != null) {
+        characteristicsOwnerIds.add(delta.getId());
+      }
+      if (delta.getLocation() != null && delta.getLocation().getId() != null) {
+        locationIds.add(delta.getLocation().getId());
+      }
+      if (delta.getUpdatedCharacteristics() != null) {
+        delta.getUpdatedCharacteristics().stream()
+            .map(CharacteristicDto::getId)
+            .filter(Objects::nonNull)
+            .forEach(characteristicIds::add);
+      }
+      if (delta.getRemovedCharacteristicIds() != null) {
+        characteristicIds.addAll(delta.getRemovedCharacteristicIds());
+      }
+      versions.merge(delta.getId(), delta.getVersion(), Math::max);
+    }
+
+    public void deleted(UUID resourceId) {
+      resourceIds.add(resourceId);
+      characteristicsOwnerIds.add(resourceId);
+      versions.put(resourceId, Long.MAX_VALUE);
+    }
+
+    public void evict() {
+      var cache = entityManagerFactory.getCache().unwrap(Cache.class);
+      resourceIds.forEach(id -> cache.evictEntityData(Resource.class, id));
+      characteristicsOwnerIds.forEach(id -> cache.evictCollectionData(CHARACTERISTICS_ROLE, id));
+      locationIds.forEach(id -> cache.evictEntityData(Location.class, id));
+      characteristicIds.forEach(id -> cache.evictEntityData(Characteristic.class, id));
+      unversionedIds.forEach(resourceResponseCache::evict);
+      versions.forEach(resourceResponseCache::invalidate);
+    }
+  }
+
+  // Evicting again after commit drops entries that concurrent readers loaded before the commit.
+  // The after-commit eviction records a watermark in the response cache, so such a reader cannot
+  // put the old version back once it has run
+  private void evictNowAndAfterCommit(Runnable eviction, Runnable afterCommitEviction) {
+    eviction.run();
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              afterCommitEviction.run();
+            }
+          });
+    }
+  }
+}
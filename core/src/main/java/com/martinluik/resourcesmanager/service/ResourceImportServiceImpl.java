@@ -0,0 +1,205 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.config.ResourceImportProperties;
+import com.martinluik.resourcesmanager.dto.ImportReportDto;
+import com.martinluik.resourcesmanager.enums.ImportFormat;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Imports resources without going through JPA: rows are validated and streamed into a temporary
+ * staging table with COPY, then merged into the location, resource and characteristic tables with
+ * one INSERT ... SELECT each. An import is all or nothing, rows that fail validation are reported
+ * and skipped. Imported resources are read back and published in full like created ones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceImportServiceImpl implements ResourceImportService {
+
+  private static final int COPY_BUFFER_SIZE = 1 << 16;
+  private static final int PUBLISH_CHUNK_SIZE = 1_000;
+
+  // Private to the session and dropped with the transaction at the latest
+  private static final String CREATE_STAGING_TABLE =
+      """
+      CREATE TEMPORARY TABLE resource_import_staging (
+          row_index             INT          NOT NULL,
+          resource_id           UUID         NOT NULL DEFAULT gen_random_uuid(),
+          location_id           UUID         NOT NULL DEFAULT gen_random_uuid(),
+          type                  VARCHAR(32)  NOT NULL,
+          country_code          CHAR(2)      NOT NULL,
+          street_address        VARCHAR(255) NOT NULL,
+          city                  VARCHAR(255) NOT NULL,
+          postal_code           VARCHAR(32)  NOT NULL,
+          location_country_code CHAR(2)      NOT NULL,
+          characteristics       JSONB        NOT NULL
+      ) ON COMMIT DROP""";
+
+  private static final String COPY_TO_STAGING =
+      """
+      COPY resource_import_staging (row_index, type, country_code, street_address, city,
+          postal_code, location_country_code, characteristics) FROM STDIN""";
+
+  // CharacteristicDto allows longer values than the characteristic.value column holds
+  private static final int CHARACTERISTIC_VALUE_COLUMN_SIZE = 255;
+
+  private static final String REJECT_OVERSIZED_CHARACTERISTICS =
+      """
+      DELETE FROM resource_import_staging s
+      WHERE EXISTS (SELECT 1 FROM jsonb_array_elements(s.characteristics) c
+                    WHERE length(c ->> 'value') > ?)
+      RETURNING s.row_index""";
+
+  private static final String MERGE_LOCATIONS =
+      """
+      INSERT INTO location (id, version, updated_at, street_address, city, postal_code,
+          country_code)
+      SELECT location_id, 0, now(), street_address, city, postal_code, location_country_code
+      FROM resource_import_staging""";
+
+  private static final String MERGE_RESOURCES =
+      """
+      INSERT INTO resource (id, version, updated_at, type, country_code, location_id)
+      SELECT resource_id, 0, now(), type, country_code, location_id
+      FROM resource_import_staging""";
+
+  private static final String MERGE_CHARACTERISTICS =
+      """
+      INSERT INTO characteristic (id, version, updated_at, code, type, value, resource_id)
+      SELECT gen_random_uuid(), 0, now(), c.code, c.type, c.value, s.resource_id
+      FROM resource_import_staging s,
+          jsonb_to_recordset(s.characteristics) AS c(code VARCHAR, type VARCHAR, value VARCHAR)""";
+
+  private static final String SELECT_IMPORTED_IDS =
+      "SELECT resource_id FROM resource_import_staging ORDER BY row_index";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final ResourceImportProperties properties;
+  private final ResourceReadRepository resourceReadRepository;
+  private final KafkaService kafkaService;
+  private final EntityManager entityManager;
+
+  @Override
+  @Transactional
+  public ImportReportDto importResources(InputStream input, ImportFormat format) {
+    log.info("Starting {} import of resources", format);
+    jdbcTemplate.execute(CREATE_STAGING_TABLE);
+    var staging =
+        jdbcTemplate.execute(
+            (ConnectionCallback<ImportStagingWriter>)
+                connection -> copyToStaging(connection, input, format));
+
+    var oversized =
+        jdbcTemplate.queryForList(
+            REJECT_OVERSIZED_CHARACTERISTICS, Integer.class, CHARACTERISTIC_VALUE_COLUMN_SIZE);
+    var oversizedError =
+        List.of(
+            "characteristics: value longer than "
+                + CHARACTERISTIC_VALUE_COLUMN_SIZE
+                + " characters");
+    oversized.forEach(rowIndex -> staging.reject(rowIndex, oversizedError));
+
+    jdbcTemplate.update(MERGE_LOCATIONS);
+    var imported = jdbcTemplate.update(MERGE_RESOURCES);
+    jdbcTemplate.update(MERGE_CHARACTERISTICS);
+    publishImported(jdbcTemplate.queryForList(SELECT_IMPORTED_IDS, UUID.class));
+    jdbcTemplate.execute("DROP TABLE resource_import_staging");
+
+    var report = staging.report(imported);
+    log.info(
+        "Imported {} of {} resources in {} ms, {} rejected",
+        report.getRowsImported(),
+        report.getRowsRead(),
+        report.getDurationMillis(),
+        report.getRowsRejected());
+    return report;
+  }
+
+  @Override
+  @Transactional
+  public ImportReportDto importResourcesFromFile(String path, ImportFormat format) {
+    var file = resolveImportFile(path);
+    log.info("Importing resources from file {}", file);
+    try (var input = Files.newInputStream(file)) {
+      return importResources(input, format);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read import file " + file, e);
+    }
+  }
+
+  // Outbox rows are flushed and detached per chunk, so a large import does not pile them up
+  private void publishImported(List<UUID> ids) {
+    for (var from = 0; from < ids.size(); from += PUBLISH_CHUNK_SIZE) {
+      var chunk = ids.subList(from, Math.min(from + PUBLISH_CHUNK_SIZE, ids.size()));
+      kafkaService.sendResourceUpdates(
+          ResourceRowAssembler.assemble(resourceReadRepository.findRowsByIdIn(chunk)));
+      entityManager.flush();
+      entityManager.clear();
+    }
+  }
+
+  private ImportStagingWriter copyToStaging(
+      Connection connection, InputStream input, ImportFormat format) throws SQLException {
+    var copyStream =
+        new PGCopyOutputStream(
+            connection.unwrap(PGConnection.class), COPY_TO_STAGING, COPY_BUFFER_SIZE);
+    var staging = new ImportStagingWriter(copyStream, objectMapper, validator, properties);
+    try (staging;
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      new ImportRowReader(objectMapper).read(reader, format, staging);
+    } catch (JsonParseException e) {
+      throw new IllegalArgumentException("Malformed import: " + e.getOriginalMessage(), e);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to stage imported resources", e);
+    }
+    return staging;
+  }
+
+  // Symbolic links and relative segments are resolved first, so neither can leave the directory
+  private Path resolveImportFile(String path) {
+    if (properties.directory() == null) {
+      throw new IllegalArgumentException("Imports from the server file system are disabled");
+    }
+
+    try {
+      var directory = properties.directory().toRealPath();
+      var file = directory.resolve(path).toRealPath();
+      if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+        throw new IllegalArgumentException(
+            "Import file must be a regular file inside the import directory: " + path);
+      }
+      return file;
+    } catch (NoSuchFileException e) {
+      throw new IllegalArgumentException("Import file not found: " + path, e);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to resolve import file " + path, e);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.repository.ResourceRow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Folds flat {@link ResourceRow}s ordered by resource id into {@link ResourceDto} trees, emitting
+ * each resource as soon as its last row has been seen.
+ */
+final class ResourceRowAssembler {
+
+  private final Consumer<ResourceDto> sink;
+  @Nullable private ResourceDto current;
+
+  ResourceRowAssembler(Consumer<ResourceDto> sink) {
+    this.sink = sink;
+  }
+
+  static List<ResourceDto> assemble(List<ResourceRow> rows) {
+    var resources = new ArrayList<ResourceDto>();
+    var assembler = new ResourceRowAssembler(resources::add);
+    rows.forEach(assembler::accept);
+    assembler.finish();
+    return resources;
+  }
+
+  void accept(ResourceRow row) {
+    if (current == null || !current.getId().equals(row.id())) {
+      finish();
+      current = row.toResourceDto();
+    }
+    if (row.hasCharacteristic()) {
+      current.getCharacteristics().add(row.toCharacteristicDto());
+    }
+  }
+
+  void finish() {
+    if (current != null) {
+      sink.accept(current);
+      current = null;
+    }
+  }
+}
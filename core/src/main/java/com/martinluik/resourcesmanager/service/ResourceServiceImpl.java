@@ -1,21 +1,44 @@
 package com.martinluik.resourcesmanager.service;
 
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_BATCH_GET_SIZE;
+import static com.martinluik.resourcesmanager.constants.PaginationConstants.MAX_PAGE_SIZE;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.cache.ResourceResponseCache;
+import com.martinluik.resourcesmanager.config.ResourceEventProperties;
+import com.martinluik.resourcesmanager.dto.BatchGetResultDto;
+import com.martinluik.resourcesmanager.dto.CursorPageDto;
 import com.martinluik.resourcesmanager.dto.LocationDto;
 import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.dto.VersionDto;
+import com.martinluik.resourcesmanager.exception.PreconditionFailedException;
 import com.martinluik.resourcesmanager.exception.ResourceNotFoundException;
 import com.martinluik.resourcesmanager.domain.Characteristic;
 import com.martinluik.resourcesmanager.domain.Resource;
 import com.martinluik.resourcesmanager.mapper.LocationMapper;
 import com.martinluik.resourcesmanager.mapper.ResourceMapper;
-import com.martinluik.resourcesmanager.repository.CharacteristicRepository;
-import com.martinluik.resourcesmanager.repository.LocationRepository;
+import com.martinluik.resourcesmanager.messaging.ResourceDeltas;
+import com.martinluik.resourcesmanager.pagination.CursorCodec;
+import com.martinluik.resourcesmanager.projection.ResourceProjection;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
 import com.martinluik.resourcesmanager.repository.ResourceRepository;
-import java.util.ArrayList;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 @Service
@@ -23,16 +46,51 @@ import org.springframework.util.Assert;
 public class ResourceServiceImpl implements ResourceService {
 
   private final ResourceRepository resourceRepository;
-  private final LocationRepository locationRepository;
-  private final CharacteristicRepository characteristicRepository;
+  private final ResourceReadRepository resourceReadRepository;
   private final ResourceMapper resourceMapper;
   private final LocationMapper locationMapper;
   private final KafkaService kafkaService;
+  private final ResourceCacheEvictor resourceCacheEvictor;
+  private final ResourceResponseCache resourceResponseCache;
+  private final ResourceProjection resourceProjection;
+  private final ResourceEventProperties resourceEventProperties;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final EntityManager entityManager;
+
+  // Not transactional so that pages served by the projection never take a database connection
+  @Override
+  public CursorPageDto<ResourceDto> getAllResources(
+      ResourceFilterDto filter, @Nullable String cursor, int limit) {
+    Assert.notNull(filter, "Resource filter cannot be null");
+    Assert.isTrue(limit > 0, "Page size must be positive");
+
+    var pageSize = Math.min(limit, MAX_PAGE_SIZE);
+    var afterId = CursorCodec.decode(cursor);
+
+    if (resourceProjection.canServe(filter)) {
+      return CursorPageDto.fromSlice(
+          resourceProjection.findPage(filter, afterId, pageSize + 1),
+          pageSize,
+          ResourceDto::getId);
+    }
+
+    var rows = resourceReadRepository.findPage(filter, afterId, pageSize + 1);
+
+    return CursorPageDto.fromSlice(
+        ResourceRowAssembler.assemble(rows), pageSize, ResourceDto::getId);
+  }
 
   @Override
   @Transactional(readOnly = true)
-  public List<ResourceDto> getAllResources() {
-    return resourceRepository.findAll().stream().map(resourceMapper::toDto).toList();
+  public void streamAllResources(Consumer<ResourceDto> consumer) {
+    Assert.notNull(consumer, "Resource consumer cannot be null");
+
+    var assembler = new ResourceRowAssembler(consumer);
+    try (var rows = resourceReadRepository.streamAllRows()) {
+      rows.forEach(assembler::accept);
+    }
+    assembler.finish();
   }
 
   @Override
@@ -46,31 +104,56 @@ public class ResourceServiceImpl implements ResourceService {
         .orElseThrow(() -> new ResourceNotFoundException(id));
   }
 
+  // Not transactional so that cache hits never take a database connection. A miss caches the
+  // loaded body under its own version, which is newer than the given one only after a racing write
+  @Override
+  public void writeResourceJson(UUID id, long version, OutputStream outputStream)
+      throws IOException {
+    Assert.notNull(id, "Resource ID cannot be null");
+
+    if (resourceResponseCache.writeTo(id, version, outputStream)) {
+      return;
+    }
+
+    var resource = transactionTemplate.execute(status -> getResource(id));
+    var json = toJson(resource);
+    resourceResponseCache.put(id, resource.getVersion(), json);
+    outputStream.write(json);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public VersionDto getResourceVersion(UUID id) {
+    Assert.notNull(id, "Resource ID cannot be null");
+
+    return resourceReadRepository
+        .findVersionById(id)
+        .orElseThrow(() -> new ResourceNotFoundException(id));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public BatchGetResultDto<ResourceDto> getResources(List<UUID> ids) {
+    Assert.notEmpty(ids, "Resource IDs cannot be empty");
+    Assert.noNullElements(ids, "Resource IDs cannot contain null");
+    Assert.isTrue(
+        ids.size() <= MAX_BATCH_GET_SIZE,
+        "At most " + MAX_BATCH_GET_SIZE + " resource IDs can be requested at once");
+
+    var requestedIds = new LinkedHashSet<>(ids);
+    var resourcesById =
+        ResourceRowAssembler.assemble(resourceReadRepository.findRowsByIdIn(requestedIds)).stream()
+            .collect(Collectors.toMap(ResourceDto::getId, List::of));
+
+    return BatchResults.inRequestOrder(requestedIds, resourcesById.keySet(), resourcesById);
+  }
+
   @Override
   @Transactional
   public ResourceDto createResource(ResourceDto dto) {
     Assert.notNull(dto, "Resource DTO cannot be null");
 
-    var resource = resourceMapper.toEntity(dto);
-
-    if (dto.getCharacteristics() != null && !dto.getCharacteristics().isEmpty()) {
-      Resource finalResource = resource;
-      var characteristics =
-          dto.getCharacteristics().stream()
-              .map(
-                  characteristicDto -> {
-                    var characteristic = new Characteristic();
-                    characteristic.setCode(characteristicDto.getCode());
-                    characteristic.setType(characteristicDto.getType());
-                    characteristic.setValue(characteristicDto.getValue());
-                    characteristic.setResource(finalResource);
-                    return characteristic;
-                  })
-              .toList();
-      resource.setCharacteristics(characteristics);
-    }
-
-    resource = resourceRepository.save(resource);
+    var resource = resourceRepository.save(toNewResource(dto));
     var createdDto = resourceMapper.toDto(resource);
 
     kafkaService.sendResourceUpdate(createdDto);
@@ -78,56 +161,45 @@ public class ResourceServiceImpl implements ResourceService {
     return createdDto;
   }
 
+  // One chunk of a bulk import: written as JDBC batches by a single flush, then detached
   @Override
   @Transactional
-  public ResourceDto updateResource(ResourceDto dto) {
-    Assert.notNull(dto, "Resource DTO cannot be null");
-    Assert.notNull(dto.getId(), "Resource ID cannot be null for update");
+  public List<ResourceDto> createResources(List<ResourceDto> dtos) {
+    Assert.notNull(dtos, "Resource DTOs cannot be null");
 
-    var existingResource =
-        resourceRepository
-            .findById(dto.getId())
-            .orElseThrow(() -> new ResourceNotFoundException(dto.getId()));
+    var resources = dtos.stream().map(this::toNewResource).toList();
+    resources.forEach(entityManager::persist);
+    entityManager.flush();
 
-    existingResource.setType(dto.getType());
-    existingResource.setCountryCode(dto.getCountryCode());
+    var createdDtos = resources.stream().map(resourceMapper::toDto).toList();
+    entityManager.clear();
 
-    if (dto.getLocation() != null) {
-      var location = locationMapper.toEntity(dto.getLocation());
-      location.setId(existingResource.getLocation().getId());
-      existingResource.setLocation(location);
-    }
+    kafkaService.sendResourceUpdates(createdDtos);
 
-    if (dto.getCharacteristics() != null) {
-      characteristicRepository.deleteAll(existingResource.getCharacteristics());
-
-      if (!dto.getCharacteristics().isEmpty()) {
-        var characteristics =
-            dto.getCharacteristics().stream()
-                .map(
-                    characteristicDto -> {
-                      var characteristic = new Characteristic();
-                      characteristic.setCode(characteristicDto.getCode());
-                      characteristic.setType(characteristicDto.getType());
-                      characteristic.setValue(characteristicDto.getValue());
-                      characteristic.setResource(existingResource);
-                      return characteristic;
-                    })
-                .toList();
-
-        var savedCharacteristics = characteristicRepository.saveAll(characteristics);
-        existingResource.setCharacteristics(savedCharacteristics);
-      } else {
-        existingResource.setCharacteristics(new ArrayList<>());
-      }
-    }
+    return createdDtos;
+  }
 
-    var updatedResource = resourceRepository.save(existingResource);
-    var updatedDto = resourceMapper.toDto(updatedResource);
+  @Override
+  @Transactional
+  public ResourceDto updateResource(ResourceDto dto, @Nullable Long expectedVersion) {
+    Assert.notNull(dto, "Resource DTO cannot be null");
+    Assert.notNull(dto.getId(), "Resource ID cannot be null for update");
+
+    var existingResource = findForUpdate(dto.getId(), expectedVersion);
+    return applyUpdate(existingResource, dto);
+  }
 
-    kafkaService.sendResourceUpdate(updatedDto);
+  @Override
+  @Transactional
+  public ResourceDto patchResource(
+      UUID id, UnaryOperator<ResourceDto> patch, @Nullable Long expectedVersion) {
+    Assert.notNull(id, "Resource ID cannot be null");
+    Assert.notNull(patch, "Resource patch cannot be null");
 
-    return updatedDto;
+    var existingResource = findForUpdate(id, expectedVersion);
+    var patchedDto = patch.apply(resourceMapper.toDto(existingResource));
+    patchedDto.setId(id);
+    return applyUpdate(existingResource, patchedDto);
   }
 
   @Override
@@ -140,6 +212,9 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     resourceRepository.deleteById(id);
+    resourceCacheEvictor.evictDeletedResponse(id);
+
+    kafkaService.sendResourceDeletion(id);
   }
 
   @Override
@@ -152,23 +227,125 @@ public class ResourceServiceImpl implements ResourceService {
         resourceRepository
             .findById(resourceId)
             .orElseThrow(() -> new ResourceNotFoundException(resourceId));
+    var previousDto = resourceMapper.toDto(resource);
+
+    if (!locationMapper.updateEntityIfChanged(locationDto, resource.getLocation())) {
+      return resourceMapper.toDto(resource);
+    }
 
-    var location = locationMapper.toEntity(locationDto);
-    location.setId(resource.getLocation().getId());
-    location = locationRepository.save(location);
+    resource.markModified();
+    var snapshot = markSnapshotIfDue(resource);
+    resource = resourceRepository.saveAndFlush(resource);
+    var updatedDto = resourceMapper.toDto(resource);
+    resourceCacheEvictor.evictResponse(resource);
 
-    resource.setLocation(location);
-    resource = resourceRepository.save(resource);
+    publishUpdate(snapshot, previousDto, updatedDto);
 
-    return resourceMapper.toDto(resource);
+    return updatedDto;
   }
 
-  @Override
-  @Transactional
-  public void exportAllResources() {
-    var resources = resourceRepository.findAll();
-    var resourceDtos = resources.stream().map(resourceMapper::toDto).toList();
+  private Resource findForUpdate(UUID id, @Nullable Long expectedVersion) {
+    var resource =
+        resourceRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException(id));
+
+    // A writer that commits after this check still fails the version check of the flush
+    if (expectedVersion != null && !expectedVersion.equals(resource.getVersion())) {
+      throw new PreconditionFailedException(
+          "Resource %s is at version %d, not %d"
+              .formatted(id, resource.getVersion(), expectedVersion));
+    }
+    return resource;
+  }
+
+  // Unchanged fields stay clean, so the dynamic UPDATE only writes what the DTO changed
+  private ResourceDto applyUpdate(Resource existingResource, ResourceDto dto) {
+    var previousDto = resourceMapper.toDto(existingResource);
+    var changed =
+        existingResource.getType() != dto.getType()
+            || !Objects.equals(existingResource.getCountryCode(), dto.getCountryCode());
+    existingResource.setType(dto.getType());
+    existingResource.setCountryCode(dto.getCountryCode());
+
+    if (dto.getLocation() != null
+        && locationMapper.updateEntityIfChanged(
+            dto.getLocation(), existingResource.getLocation())) {
+      existingResource.markModified();
+      changed = true;
+    }
+
+    if (dto.getCharacteristics() != null
+        && CharacteristicSync.apply(existingResource, dto.getCharacteristics())) {
+      existingResource.markModified();
+      resourceCacheEvictor.evictCharacteristics(existingResource);
+      changed = true;
+    }
+
+    // An update that changes nothing keeps its version, nothing cached or published is stale
+    if (!changed) {
+      return previousDto;
+    }
+
+    // Flushing bumps the version before it is mapped into the response and the event
+    var snapshot = markSnapshotIfDue(existingResource);
+    var updatedResource = resourceRepository.saveAndFlush(existingResource);
+    var updatedDto = resourceMapper.toDto(updatedResource);
+
+    resourceCacheEvictor.evictResponse(updatedResource);
+    publishUpdate(snapshot, previousDto, updatedDto);
+
+    return updatedDto;
+  }
+
+  // Every snapshotEvery-th version is published in full. The decision is taken before the flush,
+  // which bumps the version by one, so a snapshot is recorded by the same UPDATE as the change
+  private boolean markSnapshotIfDue(Resource resource) {
+    if (resource.getVersion() + 1 - resource.getSnapshotVersion()
+        < resourceEventProperties.snapshotEvery()) {
+      return false;
+    }
+    resource.markSnapshotOfNextVersion();
+    return true;
+  }
+
+  private void publishUpdate(boolean snapshot, ResourceDto previousDto, ResourceDto updatedDto) {
+    if (snapshot) {
+      kafkaService.sendResourceUpdate(updatedDto);
+    } else {
+      kafkaService.sendResourceDelta(ResourceDeltas.between(previousDto, updatedDto));
+    }
+  }
+
+  private Resource toNewResource(ResourceDto dto) {
+    var resource = resourceMapper.toEntity(dto);
+    // Creation never adopts client IDs; versioned entities with an ID would not be new
+    resource.setId(null);
+    if (resource.getLocation() != null) {
+      resource.getLocation().setId(null);
+    }
+
+    if (dto.getCharacteristics() != null && !dto.getCharacteristics().isEmpty()) {
+      var characteristics =
+          dto.getCharacteristics().stream()
+              .map(
+                  characteristicDto -> {
+                    var characteristic = new Characteristic();
+                    characteristic.setCode(characteristicDto.getCode());
+                    characteristic.setType(characteristicDto.getType());
+                    characteristic.setValue(characteristicDto.getValue());
+                    characteristic.setResource(resource);
+                    return characteristic;
+                  })
+              .toList();
+      resource.setCharacteristics(characteristics);
+    }
+    return resource;
+  }
 
-    kafkaService.sendBulkExport(resourceDtos);
+  private byte[] toJson(ResourceDto resource) {
+    try {
+      return objectMapper.writeValueAsBytes(resource);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize resource " + resource.getId(), e);
+    }
   }
 }
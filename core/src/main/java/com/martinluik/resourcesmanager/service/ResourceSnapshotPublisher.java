@@ -0,0 +1,149 @@
+package com.martinluik.resourcesmanager.service;
+
+import com.martinluik.resourcesmanager.config.ResourceEventProperties;
+import com.martinluik.resourcesmanager.domain.Resource;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes a full snapshot of every resource whose last event was a delta once it has not been
+ * updated for {@link ResourceEventProperties#snapshotDelay()}. Compaction keeps only the last
+ * record of a key, so without it a consumer reading the topic from the beginning could find a
+ * delta with nothing to apply it to. Claimed resources stay locked until their snapshots are in the
+ * outbox, so a concurrent update is published after the snapshot.
+ */
+@Slf4j
+@Component
+public class ResourceSnapshotPublisher implements SmartLifecycle {
+
+  private static final String CLAIM_BATCH =
+      """
+      SELECT id
+      FROM resource
+      WHERE snapshot_version < version AND updated_at < ?
+      ORDER BY updated_at
+      LIMIT ?
+      FOR UPDATE SKIP LOCKED
+      """;
+  private static final String MARK_PUBLISHED =
+      "UPDATE resource SET snapshot_version = version WHERE id = ANY (?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ResourceReadRepository resourceReadRepository;
+  private final KafkaService kafkaService;
+  private final EntityManagerFactory entityManagerFactory;
+  private final ResourceEventProperties properties;
+
+  @Nullable private ScheduledExecutorService executor;
+
+  public ResourceSnapshotPublisher(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ResourceReadRepository resourceReadRepository,
+      KafkaService kafkaService,
+      EntityManagerFactory entityManagerFactory,
+      ResourceEventProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.resourceReadRepository = resourceReadRepository;
+    this.kafkaService = kafkaService;
+    this.entityManagerFactory = entityManagerFactory;
+    this.properties = properties;
+  }
+
+  /** Publishes snapshots of every resource currently due for one. */
+  public int publishPending() {
+    var published = 0;
+    int batchSize;
+    do {
+      batchSize = publishBatch();
+      published += batchSize;
+    } while (batchSize == properties.batchSize());
+    return published;
+  }
+
+  @Override
+  public void start() {
+    if (!properties.publisherEnabled()) {
+      log.info("Resource snapshot publisher is disabled");
+      return;
+    }
+
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("resource-snapshot-publisher").factory());
+    var interval = properties.pollInterval().toMillis();
+    executor.scheduleWithFixedDelay(
+        this::publishQuietly, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (executor == null) {
+      return;
+    }
+
+    executor.shutdownNow();
+    executor = null;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return executor != null;
+  }
+
+  // An exception would cancel the scheduled task, the resources are claimed again on the next poll
+  private void publishQuietly() {
+    try {
+      var published = publishPending();
+      if (published > 0) {
+        log.info("Published snapshots of {} resources", published);
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to publish resource snapshots", e);
+    }
+  }
+
+  private int publishBatch() {
+    Integer published =
+        transactionTemplate.execute(
+            status -> {
+              var updatedBefore = Instant.now().minus(properties.snapshotDelay());
+              var ids =
+                  jdbcTemplate.queryForList(
+                      CLAIM_BATCH,
+                      UUID.class,
+                      Timestamp.from(updatedBefore),
+                      properties.batchSize());
+              if (ids.isEmpty()) {
+                return 0;
+              }
+
+              kafkaService.sendResourceUpdates(
+                  ResourceRowAssembler.assemble(resourceReadRepository.findRowsByIdIn(ids)));
+              jdbcTemplate.update(
+                  MARK_PUBLISHED,
+                  ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())));
+
+              // Written behind Hibernate's back, cached entities would keep the old value
+              var cache = entityManagerFactory.getCache();
+              ids.forEach(id -> cache.evict(Resource.class, id));
+              return ids.size();
+            });
+    return published == null ? 0 : published;
+  }
+}
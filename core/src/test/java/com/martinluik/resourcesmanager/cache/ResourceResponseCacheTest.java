@@ -0,0 +1,163 @@
+package com.martinluik.resourcesmanager.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class ResourceResponseCacheTest {
+
+  private static final int MEGABYTE = 1024 * 1024;
+
+  @Test
+  void get_afterPutSpanningSeveralBlocks_returnsSameBytes() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 16, 100);
+    var id = UUID.randomUUID();
+    var json = "{\"id\":\"%s\",\"type\":\"METERING_POINT\"}".formatted(id);
+
+    // When
+    cache.put(id, 0, json.getBytes(StandardCharsets.UTF_8));
+
+    // Then
+    assertThat(cache.get(id)).asString(StandardCharsets.UTF_8).isEqualTo(json);
+  }
+
+  @Test
+  void writeTo_afterPutSpanningSeveralBlocks_writesSameBytes() throws IOException {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 16, 100);
+    var id = UUID.randomUUID();
+    var json = "{\"id\":\"%s\",\"type\":\"METERING_POINT\"}".formatted(id);
+    cache.put(id, 0, json.getBytes(StandardCharsets.UTF_8));
+
+    // When
+    var outputStream = new ByteArrayOutputStream();
+    var written = cache.writeTo(id, 0, outputStream);
+
+    // Then
+    assertThat(written).isTrue();
+    assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(json);
+  }
+
+  @Test
+  void writeTo_withUncachedResource_writesNothing() throws IOException {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 16, 100);
+
+    // When
+    var outputStream = new ByteArrayOutputStream();
+    var written = cache.writeTo(UUID.randomUUID(), 0, outputStream);
+
+    // Then
+    assertThat(written).isFalse();
+    assertThat(outputStream.size()).isZero();
+  }
+
+  @Test
+  void writeTo_withOtherCachedVersion_writesNothing() throws IOException {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 16, 100);
+    var id = UUID.randomUUID();
+    cache.put(id, 1, payload(100, 1));
+
+    // When
+    var outputStream = new ByteArrayOutputStream();
+    var written = cache.writeTo(id, 2, outputStream);
+
+    // Then
+    assertThat(written).isFalse();
+    assertThat(outputStream.size()).isZero();
+  }
+
+  @Test
+  void put_beyondMemoryBudget_evictsLeastRecentlyUsedEntry() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, MEGABYTE, 100);
+    var ids = Stream.generate(UUID::randomUUID).limit(4).toList();
+    ids.forEach(id -> cache.put(id, 0, payload(MEGABYTE, 1)));
+    cache.get(ids.get(0));
+
+    // When
+    var newest = UUID.randomUUID();
+    cache.put(newest, 0, payload(MEGABYTE, 2));
+
+    // Then
+    assertThat(cache.size()).isEqualTo(4);
+    assertThat(cache.get(ids.get(1))).isNull();
+    assertThat(cache.get(ids.get(0))).isEqualTo(payload(MEGABYTE, 1));
+    assertThat(cache.get(newest)).isEqualTo(payload(MEGABYTE, 2));
+  }
+
+  @Test
+  void put_withOlderVersion_keepsNewerEntry() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 512, 100);
+    var id = UUID.randomUUID();
+    cache.put(id, 2, payload(100, 2));
+
+    // When
+    cache.put(id, 1, payload(100, 1));
+
+    // Then
+    assertThat(cache.get(id)).isEqualTo(payload(100, 2));
+  }
+
+  @Test
+  void evict_withCachedEntry_removesEntry() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 512, 100);
+    var id = UUID.randomUUID();
+    cache.put(id, 0, payload(100, 1));
+
+    // When
+    cache.evict(id);
+
+    // Then
+    assertThat(cache.get(id)).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void invalidate_withNewerVersion_dropsEntryAndRejectsStalePut() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 512, 100);
+    var id = UUID.randomUUID();
+    cache.put(id, 1, payload(100, 1));
+
+    // When
+    cache.invalidate(id, 2);
+    cache.put(id, 1, payload(100, 1));
+
+    // Then
+    assertThat(cache.get(id)).isNull();
+
+    cache.put(id, 2, payload(100, 2));
+    assertThat(cache.get(id)).isEqualTo(payload(100, 2));
+  }
+
+  @Test
+  void invalidate_withOlderVersion_keepsNewerEntry() {
+    // Given
+    var cache = new ResourceResponseCache(4L * MEGABYTE, 512, 100);
+    var id = UUID.randomUUID();
+    cache.put(id, 3, payload(100, 3));
+
+    // When
+    cache.invalidate(id, 2);
+
+    // Then
+    assertThat(cache.get(id)).isEqualTo(payload(100, 3));
+  }
+
+  private static byte[] payload(int length, int value) {
+    var payload = new byte[length];
+    Arrays.fill(payload, (byte) value);
+    return payload;
+  }
+}
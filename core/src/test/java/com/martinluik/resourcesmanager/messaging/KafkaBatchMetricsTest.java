@@ -0,0 +1,48 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+class KafkaBatchMetricsTest {
+
+  private static final String TOPIC = "resource-updates";
+
+  @Test
+  void processByPartition_withSeveralPolls_metersEachPartitionOnce() {
+    // Given
+    var meterRegistry = new SimpleMeterRegistry();
+    var metrics = new KafkaBatchMetrics(meterRegistry);
+    var batches = new ArrayList<List<ConsumerRecord<String, String>>>();
+
+    // When
+    metrics.processByPartition(List.of(record(0), record(1), record(0)), batches::add);
+    metrics.processByPartition(List.of(record(1)), batches::add);
+
+    // Then
+    assertThat(batches).extracting(List::size).containsExactly(2, 1, 1);
+    assertThat(meterRegistry.find("kafka.consumer.records").counters()).hasSize(2);
+    assertThat(
+            meterRegistry
+                .get("kafka.consumer.records")
+                .tags("topic", TOPIC, "partition", "1")
+                .counter()
+                .count())
+        .isEqualTo(2);
+    assertThat(
+            meterRegistry
+                .get("kafka.consumer.batch.processing")
+                .tags("topic", TOPIC, "partition", "1")
+                .timer()
+                .count())
+        .isEqualTo(2);
+  }
+
+  private static ConsumerRecord<String, String> record(int partition) {
+    return new ConsumerRecord<>(TOPIC, partition, 0L, "key", "value");
+  }
+}
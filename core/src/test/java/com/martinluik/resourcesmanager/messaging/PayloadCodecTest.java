@@ -0,0 +1,191 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.martinluik.resourcesmanager.config.KafkaPayloadProperties;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import com.sun.management.ThreadMXBean;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+class PayloadCodecTest {
+
+  private static final int WARMUP_ROUNDS = 1_000;
+  private static final int MEASURED_ROUNDS = 1_000;
+  private static final int TIMED_RUNS = 3;
+
+  private final ObjectMapper objectMapper =
+      new ObjectMapper()
+          .registerModule(new JavaTimeModule())
+          .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  private final PayloadCodec payloadCodec =
+      new PayloadCodec(objectMapper, new KafkaPayloadProperties(PayloadFormat.JSON));
+
+  @Test
+  void decode_afterEncode_returnsSameResourceInEveryFormat() throws IOException {
+    // Given
+    var resource = resource(3);
+
+    for (var format : PayloadFormat.values()) {
+      // When
+      var payload = payloadCodec.encode(resource, format);
+
+      // Then
+      assertThat(payloadCodec.decode(payload, format, ResourceDto.class)).isEqualTo(resource);
+    }
+  }
+
+  @Test
+  void encode_withBinaryFormats_takesFewerBytesPerRecordThanJson() throws IOException {
+    // Given
+    var resource = resource(10);
+
+    // When
+    var jsonBytes = payloadCodec.encode(resource, PayloadFormat.JSON).length;
+    var smileBytes = payloadCodec.encode(resource, PayloadFormat.SMILE).length;
+    var cborBytes = payloadCodec.encode(resource, PayloadFormat.CBOR).length;
+
+    // Then
+    assertThat(smileBytes).isLessThan(jsonBytes);
+    assertThat(cborBytes).isLessThan(jsonBytes);
+  }
+
+  @Test
+  void encode_straightToBytes_allocatesLessThanThroughString() throws IOException {
+    // Given
+    var resource = resource(10);
+    Encoding throughString =
+        () -> objectMapper.writeValueAsString(resource).getBytes(StandardCharsets.UTF_8);
+    Encoding straightToBytes = () -> payloadCodec.encode(resource, PayloadFormat.JSON);
+    for (var i = 0; i < WARMUP_ROUNDS; i++) {
+      throughString.encode();
+      straightToBytes.encode();
+    }
+
+    // When
+    var throughStringBytes = allocatedBytes(throughString);
+    var straightToBytesBytes = allocatedBytes(straightToBytes);
+
+    // Then
+    assertThat(straightToBytes.encode()).isEqualTo(throughString.encode());
+    assertThat(straightToBytesBytes).isLessThan(throughStringBytes);
+  }
+
+  @Test
+  void roundTrip_withBinaryFormats_takesAtMostTwiceAsLongAsJson() throws IOException {
+    // Given
+    var resource = resource(10);
+    for (var format : PayloadFormat.values()) {
+      roundTrips(resource, format, WARMUP_ROUNDS);
+    }
+
+    // When
+    var nanosPerRecord = new EnumMap<PayloadFormat, Long>(PayloadFormat.class);
+    for (var run = 0; run < TIMED_RUNS; run++) {
+      for (var format : PayloadFormat.values()) {
+        var start = System.nanoTime();
+        roundTrips(resource, format, MEASURED_ROUNDS);
+        nanosPerRecord.merge(format, (System.nanoTime() - start) / MEASURED_ROUNDS, Math::min);
+      }
+    }
+
+    // Then
+    var jsonNanos = nanosPerRecord.get(PayloadFormat.JSON);
+    assertThat(nanosPerRecord.get(PayloadFormat.SMILE))
+        .as("Nanoseconds per encoded and decoded record: %s", nanosPerRecord)
+        .isLessThan(2 * jsonNanos);
+    assertThat(nanosPerRecord.get(PayloadFormat.CBOR))
+        .as("Nanoseconds per encoded and decoded record: %s", nanosPerRecord)
+        .isLessThan(2 * jsonNanos);
+  }
+
+  @Test
+  void formatOf_withoutContentTypeHeader_returnsJson() {
+    // When & Then
+    assertThat(PayloadCodec.formatOf(new RecordHeaders())).isEqualTo(PayloadFormat.JSON);
+  }
+
+  @Test
+  void formatOf_withContentTypeHeader_returnsNamedFormat() {
+    // Given
+    var headers = new RecordHeaders();
+    headers.add(PayloadCodec.contentTypeHeader(PayloadFormat.SMILE));
+
+    // When & Then
+    assertThat(PayloadCodec.formatOf(headers)).isEqualTo(PayloadFormat.SMILE);
+  }
+
+  @Test
+  void formatOf_withUnknownContentType_throwsIllegalArgumentException() {
+    // Given
+    var headers = new RecordHeaders();
+    headers.add(
+        PayloadCodec.CONTENT_TYPE_HEADER, "text/plain".getBytes(StandardCharsets.UTF_8));
+
+    // When & Then
+    assertThatThrownBy(() -> PayloadCodec.formatOf(headers))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static ResourceDto resource(int characteristics) {
+    return ResourceDto.builder()
+        .id(UUID.randomUUID())
+        .version(7L)
+        .type(ResourceType.METERING_POINT)
+        .countryCode("EE")
+        .location(
+            LocationDto.builder()
+                .id(UUID.randomUUID())
+                .streetAddress("Narva mnt 5")
+                .city("Tallinn")
+                .postalCode("10117")
+                .countryCode("EE")
+                .build())
+        .characteristics(
+            IntStream.range(0, characteristics)
+                .mapToObj(
+                    i ->
+                        CharacteristicDto.builder()
+                            .id(UUID.randomUUID())
+                            .code("C" + i)
+                            .type(CharacteristicType.CONSUMPTION_TYPE)
+                            .value("RESIDENTIAL")
+                            .build())
+                .toList())
+        .build();
+  }
+
+  private void roundTrips(ResourceDto resource, PayloadFormat format, int rounds)
+      throws IOException {
+    for (var i = 0; i < rounds; i++) {
+      payloadCodec.decode(payloadCodec.encode(resource, format), format, ResourceDto.class);
+    }
+  }
+
+  private static long allocatedBytes(Encoding encoding) throws IOException {
+    var threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var before = threads.getCurrentThreadAllocatedBytes();
+    for (var i = 0; i < MEASURED_ROUNDS; i++) {
+      encoding.encode();
+    }
+    return threads.getCurrentThreadAllocatedBytes() - before;
+  }
+
+  private interface Encoding {
+    byte[] encode() throws IOException;
+  }
+}
@@ -0,0 +1,113 @@
+package com.martinluik.resourcesmanager.messaging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ResourceDeltasTest {
+
+  private static final UUID RESOURCE_ID = UUID.randomUUID();
+  private static final UUID LOCATION_ID = UUID.randomUUID();
+  private static final UUID KEPT_ID = UUID.randomUUID();
+  private static final UUID CHANGED_ID = UUID.randomUUID();
+  private static final UUID REMOVED_ID = UUID.randomUUID();
+  private static final UUID ADDED_ID = UUID.randomUUID();
+
+  @Test
+  void between_withChangedFields_holdsOnlyTheChanges() {
+    // Given
+    var before = resource(3L, "EE", "First City", characteristic(KEPT_ID, "KEPT", "1"));
+    before.getCharacteristics().add(characteristic(CHANGED_ID, "CHG", "1"));
+    before.getCharacteristics().add(characteristic(REMOVED_ID, "REM", "1"));
+    var after = resource(4L, "FI", "Second City", characteristic(KEPT_ID, "KEPT", "1"));
+    after.getCharacteristics().add(characteristic(CHANGED_ID, "CHG", "2"));
+    after.getCharacteristics().add(characteristic(ADDED_ID, "ADD", "1"));
+
+    // When
+    var delta = ResourceDeltas.between(before, after);
+
+    // Then
+    assertThat(delta.getId()).isEqualTo(RESOURCE_ID);
+    assertThat(delta.getBaseVersion()).isEqualTo(3L);
+    assertThat(delta.getVersion()).isEqualTo(4L);
+    assertThat(delta.getType()).isNull();
+    assertThat(delta.getCountryCode()).isEqualTo("FI");
+    assertThat(delta.getLocation())
+        .isEqualTo(LocationDto.builder().id(LOCATION_ID).city("Second City").build());
+    assertThat(delta.getAddedCharacteristics())
+        .extracting(CharacteristicDto::getId)
+        .containsExactly(ADDED_ID);
+    assertThat(delta.getUpdatedCharacteristics())
+        .extracting(CharacteristicDto::getValue)
+        .containsExactly("2");
+    assertThat(delta.getRemovedCharacteristicIds()).containsExactly(REMOVED_ID);
+  }
+
+  @Test
+  void between_withUnchangedResource_hasNoChanges() {
+    // Given
+    var resource = resource(3L, "EE", "First City", characteristic(KEPT_ID, "KEPT", "1"));
+    var unchanged = resource(3L, "EE", "First City", characteristic(KEPT_ID, "KEPT", "1"));
+
+    // When
+    var delta = ResourceDeltas.between(resource, unchanged);
+
+    // Then
+    assertThat(delta.hasChanges()).isFalse();
+  }
+
+  @Test
+  void apply_withDeltaBetweenTwoStates_returnsTheLaterState() {
+    // Given
+    var before = resource(3L, "EE", "First City", characteristic(KEPT_ID, "KEPT", "1"));
+    before.getCharacteristics().add(characteristic(CHANGED_ID, "CHG", "1"));
+    before.getCharacteristics().add(characteristic(REMOVED_ID, "REM", "1"));
+    var after = resource(4L, "FI", "Second City", characteristic(KEPT_ID, "KEPT", "1"));
+    after.getCharacteristics().add(characteristic(CHANGED_ID, "CHG", "2"));
+    after.getCharacteristics().add(characteristic(ADDED_ID, "ADD", "1"));
+    var delta = ResourceDeltas.between(before, after);
+
+    // When
+    var applied = ResourceDeltas.apply(before, delta);
+
+    // Then
+    assertThat(applied).isEqualTo(after);
+  }
+
+  private static ResourceDto resource(
+      long version, String countryCode, String city, CharacteristicDto characteristic) {
+    return ResourceDto.builder()
+        .id(RESOURCE_ID)
+        .version(version)
+        .type(ResourceType.METERING_POINT)
+        .countryCode(countryCode)
+        .location(
+            LocationDto.builder()
+                .id(LOCATION_ID)
+                .streetAddress("1 Main Street")
+                .city(city)
+                .postalCode("10115")
+                .countryCode("EE")
+                .build())
+        .characteristics(new ArrayList<>(List.of(characteristic)))
+        .build();
+  }
+
+  private static CharacteristicDto characteristic(UUID id, String code, String value) {
+    return CharacteristicDto.builder()
+        .id(id)
+        .resourceId(RESOURCE_ID)
+        .code(code)
+        .type(CharacteristicType.CONSUMPTION_TYPE)
+        .value(value)
+        .build();
+  }
+}
@@ -0,0 +1,183 @@
+package com.martinluik.resourcesmanager.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.config.KafkaPayloadProperties;
+import com.martinluik.resourcesmanager.config.ResourceProjectionProperties;
+import com.martinluik.resourcesmanager.dto.CharacteristicDto;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDeltaDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import com.martinluik.resourcesmanager.messaging.PayloadCodec;
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResourceProjectionTest {
+
+  private static final String COUNTRY = "EE";
+  private static final String OTHER_COUNTRY = "LV";
+
+  private final PayloadCodec payloadCodec =
+      new PayloadCodec(new ObjectMapper(), new KafkaPayloadProperties(PayloadFormat.JSON));
+
+  @TempDir private Path snapshotDirectory;
+
+  @Test
+  void findPage_afterUpdatesAndDeletion_servesFilteredPagesInDatabaseOrder() throws IOException {
+    // Given
+    var projection = projection(null);
+    var lowId = UUID.fromString("10000000-0000-0000-0000-000000000001");
+    var highId = UUID.fromString("f0000000-0000-0000-0000-000000000001");
+    var deletedId = UUID.fromString("20000000-0000-0000-0000-000000000001");
+    var otherCountryId = UUID.fromString("30000000-0000-0000-0000-000000000001");
+
+    // When
+    put(projection, resource(highId, 1L, COUNTRY));
+    put(projection, resource(lowId, 2L, COUNTRY));
+    put(projection, resource(lowId, 1L, OTHER_COUNTRY));
+    put(projection, resource(deletedId, 1L, COUNTRY));
+    put(projection, resource(otherCountryId, 1L, OTHER_COUNTRY));
+    projection.remove(deletedId);
+
+    // Then
+    var filter = ResourceFilterDto.builder().countryCode(COUNTRY).build();
+    assertThat(projection.findPage(filter, null, 10))
+        .extracting(ResourceDto::getId, ResourceDto::getVersion)
+        .containsExactly(tuple(lowId, 2L), tuple(highId, 1L));
+    assertThat(projection.findPage(filter, lowId, 10))
+        .extracting(ResourceDto::getId)
+        .containsExactly(highId);
+  }
+
+  @Test
+  void apply_withFollowingAndStaleDeltas_appliesOnlyTheFollowingVersion() throws IOException {
+    // Given
+    var projection = projection(null);
+    var id = UUID.fromString("40000000-0000-0000-0000-000000000001");
+    var snapshot = resource(id, 1L, COUNTRY);
+    put(projection, snapshot);
+
+    // When
+    projection.apply(delta(id, 1L, 2L, OTHER_COUNTRY));
+    projection.apply(delta(id, 0L, 1L, COUNTRY));
+
+    // Then
+    var filter = ResourceFilterDto.builder().countryCode(OTHER_COUNTRY).build();
+    assertThat(projection.findPage(filter, null, 10))
+        .extracting(ResourceDto::getId, ResourceDto::getVersion, ResourceDto::getCharacteristics)
+        .containsExactly(tuple(id, 2L, snapshot.getCharacteristics()));
+    assertThat(projection.status().gaps()).isZero();
+  }
+
+  @Test
+  void apply_withoutBaseVersion_dropsResourceUntilNextSnapshot() throws IOException {
+    // Given
+    var projection = projection(null);
+    var id = UUID.fromString("50000000-0000-0000-0000-000000000001");
+    put(projection, resource(id, 3L, OTHER_COUNTRY));
+    var filter = ResourceFilterDto.builder().countryCode(OTHER_COUNTRY).build();
+
+    // When
+    projection.apply(delta(id, 4L, 5L, OTHER_COUNTRY));
+
+    // Then
+    assertThat(projection.findPage(filter, null, 10)).isEmpty();
+    assertThat(projection.status().gaps()).isEqualTo(1);
+
+    // When
+    put(projection, resource(id, 5L, OTHER_COUNTRY));
+
+    // Then
+    assertThat(projection.status().gaps()).isZero();
+    assertThat(projection.findPage(filter, null, 10))
+        .extracting(ResourceDto::getId)
+        .containsExactly(id);
+  }
+
+  @Test
+  void put_withProjectedVersionReplayedAfterSnapshot_clearsGap() throws IOException {
+    // Given
+    var id = UUID.fromString("60000000-0000-0000-0000-000000000001");
+    var resource = resource(id, 2L, COUNTRY);
+    var payload = payloadCodec.encode(resource, PayloadFormat.JSON);
+    // The gaps are copied before the entries, a put in between leaves the snapshot with both
+    ResourceProjectionSnapshot.write(
+        snapshotDirectory.resolve(ResourceProjectionSnapshot.FILE_NAME),
+        Map.of(0, 1L),
+        Set.of(id),
+        Map.of(
+            id,
+            new ResourceProjection.Entry(
+                2L, resource.getType(), COUNTRY, PayloadFormat.JSON, payload)));
+    var projection = projection(snapshotDirectory);
+    projection.start();
+    assertThat(projection.status().gaps()).isEqualTo(1);
+
+    // When
+    projection.put(resource, PayloadFormat.JSON, payload);
+    projection.stop();
+
+    // Then
+    assertThat(projection.status().gaps()).isZero();
+  }
+
+  private ResourceProjection projection(@Nullable Path directory) {
+    return new ResourceProjection(
+        payloadCodec,
+        new ResourceProjectionProperties(
+            true, false, directory, Duration.ofMinutes(5), 100, Duration.ofSeconds(30)));
+  }
+
+  private void put(ResourceProjection projection, ResourceDto resource) throws IOException {
+    var payload = payloadCodec.encode(resource, PayloadFormat.JSON);
+    projection.put(resource, PayloadFormat.JSON, payload);
+  }
+
+  private static ResourceDeltaDto delta(UUID id, long baseVersion, long version, String country) {
+    return ResourceDeltaDto.builder()
+        .id(id)
+        .baseVersion(baseVersion)
+        .version(version)
+        .countryCode(country)
+        .build();
+  }
+
+  private static ResourceDto resource(UUID id, long version, String countryCode) {
+    return ResourceDto.builder()
+        .id(id)
+        .version(version)
+        .type(ResourceType.METERING_POINT)
+        .countryCode(countryCode)
+        .location(
+            LocationDto.builder()
+                .id(UUID.randomUUID())
+                .streetAddress("Narva mnt 5")
+                .city("Tallinn")
+                .postalCode("10117")
+                .countryCode(COUNTRY)
+                .build())
+        .characteristics(
+            List.of(
+                CharacteristicDto.builder()
+                    .id(UUID.randomUUID())
+                    .code("C01")
+                    .type(CharacteristicType.CONSUMPTION_TYPE)
+                    .value("RESIDENTIAL")
+                    .build()))
+        .build();
+  }
+}
@@ -0,0 +1,132 @@
+package com.martinluik.resourcesmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.martinluik.resourcesmanager.cache.ResourceResponseCache;
+import com.martinluik.resourcesmanager.config.KafkaPayloadProperties;
+import com.martinluik.resourcesmanager.config.ResourceEventProperties;
+import com.martinluik.resourcesmanager.config.ResourceProjectionProperties;
+import com.martinluik.resourcesmanager.dto.LocationDto;
+import com.martinluik.resourcesmanager.dto.ResourceDto;
+import com.martinluik.resourcesmanager.dto.ResourceFilterDto;
+import com.martinluik.resourcesmanager.enums.CharacteristicType;
+import com.martinluik.resourcesmanager.enums.ResourceType;
+import com.martinluik.resourcesmanager.mapper.LocationMapper;
+import com.martinluik.resourcesmanager.mapper.ResourceMapper;
+import com.martinluik.resourcesmanager.messaging.PayloadCodec;
+import com.martinluik.resourcesmanager.messaging.PayloadFormat;
+import com.martinluik.resourcesmanager.pagination.CursorCodec;
+import com.martinluik.resourcesmanager.projection.ResourceProjection;
+import com.martinluik.resourcesmanager.repository.ResourceReadRepository;
+import com.martinluik.resourcesmanager.repository.ResourceRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ResourceServiceImplTest {
+
+  private static final UUID LOW_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final UUID HIGH_ID = UUID.fromString("f0000000-0000-0000-0000-000000000001");
+  private static final UUID OTHER_COUNTRY_ID =
+      UUID.fromString("20000000-0000-0000-0000-000000000001");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final PayloadCodec payloadCodec =
+      new PayloadCodec(objectMapper, new KafkaPayloadProperties(PayloadFormat.JSON));
+  private final ResourceProjection resourceProjection =
+      new ResourceProjection(
+          payloadCodec,
+          new ResourceProjectionProperties(
+              true, false, null, Duration.ofMinutes(5), 100, Duration.ofSeconds(30)));
+  private final ResourceReadRepository resourceReadRepository =
+      mock(ResourceReadRepository.class);
+  private final ResourceServiceImpl resourceService =
+      new ResourceServiceImpl(
+          mock(ResourceRepository.class),
+          resourceReadRepository,
+          mock(ResourceMapper.class),
+          mock(LocationMapper.class),
+          mock(KafkaService.class),
+          mock(ResourceCacheEvictor.class),
+          mock(ResourceResponseCache.class),
+          resourceProjection,
+          new ResourceEventProperties(
+              10, false, Duration.ofMinutes(1), Duration.ofSeconds(30), 500),
+          objectMapper,
+          mock(TransactionTemplate.class),
+          mock(EntityManager.class));
+
+  @BeforeEach
+  void setUp() throws IOException {
+    for (var resource :
+        List.of(
+            resource(HIGH_ID, "EE"), resource(LOW_ID, "EE"), resource(OTHER_COUNTRY_ID, "LV"))) {
+      resourceProjection.put(
+          resource, PayloadFormat.JSON, payloadCodec.encode(resource, PayloadFormat.JSON));
+    }
+    resourceProjection.assign(List.of(0));
+    resourceProjection.observeLag(0, 0);
+  }
+
+  @Test
+  void getAllResources_withReadyProjection_servesPagesWithoutDatabase() {
+    // Given
+    var filter = ResourceFilterDto.builder().countryCode("EE").build();
+
+    // When
+    var firstPage = resourceService.getAllResources(filter, null, 1);
+    var secondPage = resourceService.getAllResources(filter, firstPage.getNextCursor(), 1);
+
+    // Then
+    assertThat(firstPage.getItems()).extracting(ResourceDto::getId).containsExactly(LOW_ID);
+    assertThat(firstPage.getNextCursor()).isEqualTo(CursorCodec.encode(LOW_ID));
+    assertThat(secondPage.getItems()).extracting(ResourceDto::getId).containsExactly(HIGH_ID);
+    assertThat(secondPage.getNextCursor()).isNull();
+    verifyNoInteractions(resourceReadRepository);
+  }
+
+  @Test
+  void getAllResources_withCharacteristicFilter_readsFromDatabase() {
+    // Given
+    var filter =
+        ResourceFilterDto.builder()
+            .characteristicType(CharacteristicType.CONSUMPTION_TYPE)
+            .build();
+
+    // When
+    var page = resourceService.getAllResources(filter, null, 10);
+
+    // Then
+    assertThat(page.getItems()).isEmpty();
+    verify(resourceReadRepository).findPage(any(), any(), anyInt());
+  }
+
+  private static ResourceDto resource(UUID id, String countryCode) {
+    return ResourceDto.builder()
+        .id(id)
+        .version(1L)
+        .type(ResourceType.METERING_POINT)
+        .countryCode(countryCode)
+        .location(
+            LocationDto.builder()
+                .id(UUID.randomUUID())
+                .streetAddress("Narva mnt 5")
+                .city("Tallinn")
+                .postalCode("10117")
+                .countryCode(countryCode)
+                .build())
+        .characteristics(List.of())
+        .build();
+  }
+}
@@ -0,0 +1,5 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-0900-create-resource-filter-indexes
+CREATE INDEX idx_resource_country_code_type ON resource (country_code, type);
+CREATE INDEX idx_characteristic_resource_id ON characteristic (resource_id);
+CREATE INDEX idx_characteristic_type_value ON characteristic (type, value);
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-0930-create-location-search-index
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- One search text over all address fields so multi-word queries like "Main St Tallinn" match
+CREATE INDEX idx_location_search_text_trgm ON location
+    USING gin ((street_address || ' ' || city || ' ' || postal_code) gin_trgm_ops);
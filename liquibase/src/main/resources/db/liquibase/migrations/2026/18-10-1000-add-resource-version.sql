@@ -0,0 +1,3 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1000-add-resource-version
+ALTER TABLE resource ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1030-add-version-tracking
+ALTER TABLE resource ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE location ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE location ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
+
+ALTER TABLE characteristic ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE characteristic ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now();
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1100-create-outbox
+CREATE TABLE outbox
+(
+    id          UUID PRIMARY KEY,
+    topic       VARCHAR(255)             NOT NULL,
+    message_key VARCHAR(255)             NOT NULL,
+    payload     TEXT,
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX idx_outbox_created_at ON outbox (created_at, id);
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1130-create-export-job
+CREATE TABLE export_job
+(
+    id                 UUID PRIMARY KEY,
+    status             VARCHAR(16)              NOT NULL,
+    attempt            INTEGER                  NOT NULL,
+    total_resources    BIGINT                   NOT NULL,
+    resources_exported BIGINT                   NOT NULL,
+    chunks_sent        INTEGER                  NOT NULL,
+    last_resource_id   UUID,
+    error              VARCHAR(1000),
+    created_at         TIMESTAMP WITH TIME ZONE NOT NULL,
+    started_at         TIMESTAMP WITH TIME ZONE,
+    finished_at        TIMESTAMP WITH TIME ZONE,
+    heartbeat_at       TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_export_job_unfinished ON export_job (created_at) WHERE status IN ('QUEUED', 'RUNNING');
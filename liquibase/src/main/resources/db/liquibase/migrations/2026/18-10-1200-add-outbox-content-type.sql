@@ -0,0 +1,10 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1200-add-outbox-content-type
+-- Encoded payloads go to a new column while nodes of the previous release keep reading the TEXT one.
+-- JSON payloads are written to both until every node reads payload_bytes, then payload is dropped
+ALTER TABLE outbox
+    ADD COLUMN payload_bytes BYTEA;
+
+-- Rows written before the column existed hold JSON
+ALTER TABLE outbox
+    ADD COLUMN content_type VARCHAR(64);
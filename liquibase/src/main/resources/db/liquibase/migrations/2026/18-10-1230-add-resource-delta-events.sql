@@ -0,0 +1,14 @@
+--liquibase formatted sql
+--changeset martin.luik:18-10-1230-add-resource-delta-events
+-- Every existing resource was last published as a full snapshot
+ALTER TABLE resource
+    ADD COLUMN snapshot_version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE resource SET snapshot_version = version;
+
+CREATE INDEX idx_resource_unpublished_snapshot ON resource (updated_at)
+    WHERE snapshot_version < version;
+
+-- Rows written before the column existed hold snapshots
+ALTER TABLE outbox
+    ADD COLUMN event_type VARCHAR(16);